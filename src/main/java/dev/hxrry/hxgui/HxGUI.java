@@ -40,7 +40,7 @@ public class HxGUI {
      */
     public static void shutdown() {
         if (instance != null && instance.menuManager != null) {
-            instance.menuManager.closeAll();
+            instance.menuManager.shutdown();
             instance = null;
         }
     }
@@ -2,9 +2,8 @@ package dev.hxrry.hxgui.builders;
 
 import dev.hxrry.hxgui.core.Menu;
 import dev.hxrry.hxgui.core.MenuItem;
+import dev.hxrry.hxgui.core.MenuLayout;
 import dev.hxrry.hxgui.utils.SlotPattern;
-import dev.hxrry.hxgui.core.SharedMenu;
-import dev.hxrry.hxgui.core.PersonalMenu;
 import net.kyori.adventure.text.Component;
 import org.bukkit.Material;
 import org.bukkit.entity.Player;
@@ -99,6 +98,12 @@ public class GUIBuilder {
         return this;
     }
     
+    // prebuilt menu item, e.g. with per click type handlers
+    public GUIBuilder item(int slot, MenuItem item) {
+        items.put(slot, item);
+        return this;
+    }
+    
     // pattern support
     public GUIBuilder pattern(SlotPattern pattern) {
         this.pattern = pattern;
@@ -132,11 +137,16 @@ public class GUIBuilder {
         return this;
     }
     
+    public GUIBuilder item(char key, MenuItem item) {
+        patternItems.put(key, item);
+        return this;
+    }
+    
     // fill remaining slots
     public GUIBuilder fill(ItemStack item) {
         // fill all empty slots with item
-        MenuItem filler = new MenuItem(item, null);
-        int size = rows * 9;
+        MenuItem filler = MenuItem.shared(item);
+        int size = type != null ? type.getDefaultSize() : rows * 9;
         for (int i = 0; i < size; i++) {
             items.putIfAbsent(i, filler);
         }
@@ -147,39 +157,27 @@ public class GUIBuilder {
         return fill(new ItemStack(material));
     }
     
-    // build the final menu
-    public Menu build() {
+    // compile into an immutable layout that can be opened many times
+    public MenuLayout compile() {
+        Map<Integer, MenuItem> slots = new HashMap<>(items);
+        
         // merge pattern items if pattern exists
         if (pattern != null) {
-            Map<Integer, Character> slots = pattern.getSlotMap();
-            for (Map.Entry<Integer, Character> entry : slots.entrySet()) {
+            Map<Integer, Character> patternSlots = pattern.getSlotMap();
+            for (Map.Entry<Integer, Character> entry : patternSlots.entrySet()) {
                 MenuItem item = patternItems.get(entry.getValue());
                 if (item != null) {
-                    items.put(entry.getKey(), item);
+                    slots.put(entry.getKey(), item);
                 }
             }
         }
         
-        // create the menu
-        Menu menu;
-        if (type != null) {
-        // special scenarios
-            menu = shared ? 
-                new SharedMenu(title, type) : 
-                new PersonalMenu(title, type);
-        } else {
-            // for chest inventories
-            menu = shared ? 
-                new SharedMenu(title, rows) : 
-                new PersonalMenu(title, rows);
-        }
-        
-        // add all items
-        for (Map.Entry<Integer, MenuItem> entry : items.entrySet()) {
-            menu.setItem(entry.getKey(), entry.getValue());
-        }
-        
-        return menu;
+        return new MenuLayout(title, rows, type, shared, slots);
+    }
+    
+    // build the final menu
+    public Menu build() {
+        return compile().create();
     }
     
     // build and open immediately
@@ -1,8 +1,9 @@
 package dev.hxrry.hxgui.builders;
 
+import dev.hxrry.hxgui.core.MenuItem;
+import dev.hxrry.hxgui.utils.MiniMessageCache;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.TextDecoration;
-import net.kyori.adventure.text.minimessage.MiniMessage;
 import org.bukkit.Material;
 import org.bukkit.NamespacedKey;
 import org.bukkit.enchantments.Enchantment;
@@ -13,12 +14,20 @@ import org.bukkit.persistence.PersistentDataType;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 
 public class ItemBuilder {
     
+    // shared filler panes by material
+    private static final Map<Material, MenuItem> FILLERS = new ConcurrentHashMap<>();
+    
     private final ItemStack item;
     private final ItemMeta meta;
+    // raw MiniMessage text, kept for template(), null once set from components
+    private String nameSource;
+    private List<String> loreSource;
     
     // start with material
     public ItemBuilder(Material material) {
@@ -49,16 +58,16 @@ public class ItemBuilder {
     
     // display name with component
     public ItemBuilder name(Component name) {
+        nameSource = null;
         meta.displayName(name.decoration(TextDecoration.ITALIC, false));
         return this;
     }
     
     // display name with string
     public ItemBuilder name(String name) {
-        // parse color codes automatically
-        Component component = MiniMessage.miniMessage().deserialize(name)
-            .decoration(TextDecoration.ITALIC, false);
-        meta.displayName(component);
+        // parse color codes automatically, repeated strings come from the cache
+        nameSource = name;
+        meta.displayName(MiniMessageCache.parse(name));
         return this;
     }
     
@@ -66,8 +75,8 @@ public class ItemBuilder {
     public ItemBuilder lore(String line) {
         List<Component> lore = meta.lore();
         if (lore == null) lore = new ArrayList<>();
-        lore.add(MiniMessage.miniMessage().deserialize(line)
-            .decoration(TextDecoration.ITALIC, false));
+        addLoreSource(lore.size(), line);
+        lore.add(MiniMessageCache.parse(line));
         meta.lore(lore);
         return this;
     }
@@ -75,9 +84,9 @@ public class ItemBuilder {
     // multiple lore lines
     public ItemBuilder lore(String... lines) {
         List<Component> lore = new ArrayList<>();
+        loreSource = new ArrayList<>(List.of(lines));
         for (String line : lines) {
-            lore.add(MiniMessage.miniMessage().deserialize(line)
-                .decoration(TextDecoration.ITALIC, false));
+            lore.add(MiniMessageCache.parse(line));
         }
         meta.lore(lore);
         return this;
@@ -86,6 +95,7 @@ public class ItemBuilder {
     // lore with components
     public ItemBuilder lore(List<Component> lore) {
         // remove italic from all lines
+        loreSource = null;
         List<Component> formatted = new ArrayList<>();
         for (Component line : lore) {
             formatted.add(line.decoration(TextDecoration.ITALIC, false));
@@ -98,8 +108,8 @@ public class ItemBuilder {
     public ItemBuilder addLore(String line) {
         List<Component> lore = meta.lore();
         if (lore == null) lore = new ArrayList<>();
-        lore.add(MiniMessage.miniMessage().deserialize(line)
-            .decoration(TextDecoration.ITALIC, false));
+        addLoreSource(lore.size(), line);
+        lore.add(MiniMessageCache.parse(line));
         meta.lore(lore);
         return this;
     }
@@ -159,11 +169,33 @@ public class ItemBuilder {
         return item;
     }
     
+    // compile into a template, {key} placeholders in the name and lore are filled per render
+    public ItemTemplate template() {
+        return new ItemTemplate(build(), nameSource, loreSource);
+    }
+    
+    // track raw lore text while every line came from a string
+    private void addLoreSource(int existing, String line) {
+        if (existing == 0) {
+            loreSource = new ArrayList<>();
+        } else if (loreSource == null || loreSource.size() != existing) {
+            // earlier lines came from components, keep the lore as it is
+            loreSource = null;
+            return;
+        }
+        loreSource.add(line);
+    }
+    
     // quick builder for common items
     public static ItemStack filler(Material material) {
-        return new ItemBuilder(material)
+        return fillerItem(material).getItem();
+    }
+    
+    // filler as a shared menu item, built once per material
+    public static MenuItem fillerItem(Material material) {
+        return FILLERS.computeIfAbsent(material, m -> MenuItem.shared(new ItemBuilder(m)
             .name(" ")
-            .build();
+            .build()));
     }
     
     // quick builder for back button
@@ -0,0 +1,257 @@
+package dev.hxrry.hxgui.builders;
+
+import dev.hxrry.hxgui.utils.MiniMessageCache;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.format.Style;
+import net.kyori.adventure.text.format.TextDecoration;
+import net.kyori.adventure.text.minimessage.MiniMessage;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Item with {key} placeholders in its name and lore, compiled once and
+ * rendered many times.
+ *
+ * Compiling parses the MiniMessage text a single time and flattens it
+ * into styled static pieces with holes where the placeholders were.
+ * Rendering copies the prototype item and fills in the holes, so no
+ * MiniMessage is parsed per player. A template never changes after it is
+ * compiled, so it can be shared freely.
+ *
+ * <pre>
+ * ItemTemplate balance = new ItemBuilder(Material.GOLD_INGOT)
+ *     .name("&lt;gold&gt;Balance")
+ *     .lore("&lt;gray&gt;You have &lt;yellow&gt;${amount}")
+ *     .template();
+ * ItemStack item = balance.render(Map.of("amount", 250));
+ * </pre>
+ */
+public final class ItemTemplate {
+    
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\{([A-Za-z0-9_.-]+)}");
+    // private use characters the parser leaves alone, they mark where a placeholder was
+    private static final char HOLE_START = '\uE000';
+    private static final char HOLE_END = '\uE001';
+    
+    private final ItemStack prototype;
+    private final Line name;
+    private final Line[] lore;
+    private final boolean dynamic;
+    private final Set<String> keys;
+    
+    // name and lore are MiniMessage text, null keeps the prototype's own
+    public ItemTemplate(ItemStack prototype, String name, List<String> lore) {
+        this(prototype, name, lore, true);
+    }
+    
+    // italicOff false keeps the text as written, like items loaded from config
+    public ItemTemplate(ItemStack prototype, String name, List<String> lore, boolean italicOff) {
+        this.prototype = prototype.clone();
+        this.name = name != null ? compile(name, italicOff) : null;
+        
+        Set<String> keys = new LinkedHashSet<>();
+        if (this.name != null) {
+            this.name.collectKeys(keys);
+        }
+        
+        if (lore != null) {
+            this.lore = new Line[lore.size()];
+            for (int i = 0; i < lore.size(); i++) {
+                this.lore[i] = compile(lore.get(i), italicOff);
+                this.lore[i].collectKeys(keys);
+            }
+        } else {
+            this.lore = null;
+        }
+        
+        this.keys = Collections.unmodifiableSet(keys);
+        this.dynamic = !keys.isEmpty();
+        
+        // bake the static text into the prototype so a static render is a plain copy
+        this.prototype.editMeta(meta -> {
+            if (this.name != null) {
+                meta.displayName(this.name.render(Map.of()));
+            }
+            if (this.lore != null) {
+                meta.lore(renderLore(Map.of()));
+            }
+        });
+    }
+    
+    // render with placeholder values, strings, numbers or components
+    public ItemStack render(Map<String, ?> values) {
+        ItemStack item = prototype.clone();
+        if (!dynamic) {
+            return item;
+        }
+        
+        item.editMeta(meta -> {
+            if (name != null && name.dynamic) {
+                meta.displayName(name.render(values));
+            }
+            if (lore != null && hasDynamicLore()) {
+                meta.lore(renderLore(values));
+            }
+        });
+        return item;
+    }
+    
+    // render with key and value pairs, e.g. render("page", 3, "total", 9)
+    public ItemStack render(Object... keysAndValues) {
+        if (keysAndValues.length % 2 != 0) {
+            throw new IllegalArgumentException("Expected key and value pairs");
+        }
+        Map<String, Object> values = new HashMap<>();
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            values.put(String.valueOf(keysAndValues[i]), keysAndValues[i + 1]);
+        }
+        return render(values);
+    }
+    
+    // placeholder keys in the name and lore, in order of appearance
+    public Set<String> getKeys() {
+        return keys;
+    }
+    
+    public boolean isDynamic() {
+        return dynamic;
+    }
+    
+    // copy of the item with the static text in place
+    public ItemStack getPrototype() {
+        return prototype.clone();
+    }
+    
+    private boolean hasDynamicLore() {
+        for (Line line : lore) {
+            if (line.dynamic) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private List<Component> renderLore(Map<String, ?> values) {
+        List<Component> rendered = new ArrayList<>(lore.length);
+        for (Line line : lore) {
+            rendered.add(line.render(values));
+        }
+        return rendered;
+    }
+    
+    // parse a line once, placeholders become holes carrying the style around them
+    private static Line compile(String source, boolean italicOff) {
+        Matcher matcher = PLACEHOLDER.matcher(source);
+        if (!matcher.find()) {
+            return new Line(italicOff ? MiniMessageCache.parse(source) : MiniMessageCache.parseRaw(source));
+        }
+        
+        String marked = matcher.replaceAll(result -> Matcher.quoteReplacement(HOLE_START + result.group(1) + HOLE_END));
+        Component parsed = MiniMessage.miniMessage().deserialize(marked);
+        if (italicOff) {
+            parsed = parsed.decoration(TextDecoration.ITALIC, false);
+        }
+        
+        List<Object> parts = new ArrayList<>();
+        flatten(parsed, Style.empty(), parts);
+        return new Line(parts.toArray());
+    }
+    
+    // walk the tree, resolving every piece's style against its parents
+    private static void flatten(Component component, Style parent, List<Object> parts) {
+        Style style = parent.merge(component.style());
+        if (component instanceof TextComponent text) {
+            split(text.content(), style, parts);
+        } else {
+            parts.add(component.children(List.of()).style(style));
+        }
+        for (Component child : component.children()) {
+            flatten(child, style, parts);
+        }
+    }
+    
+    // cut text at the hole markers
+    private static void split(String text, Style style, List<Object> parts) {
+        int from = 0;
+        while (from < text.length()) {
+            int start = text.indexOf(HOLE_START, from);
+            int end = start >= 0 ? text.indexOf(HOLE_END, start) : -1;
+            if (start < 0 || end < 0) {
+                parts.add(Component.text(text.substring(from), style));
+                return;
+            }
+            if (start > from) {
+                parts.add(Component.text(text.substring(from, start), style));
+            }
+            parts.add(new Hole(text.substring(start + 1, end), style));
+            from = end + 1;
+        }
+    }
+    
+    // one compiled line, static components and holes in order
+    private static final class Line {
+        final Component fixed;
+        final Object[] parts;
+        final boolean dynamic;
+        
+        Line(Component fixed) {
+            this.fixed = fixed;
+            this.parts = null;
+            this.dynamic = false;
+        }
+        
+        Line(Object[] parts) {
+            this.fixed = null;
+            this.parts = parts;
+            this.dynamic = true;
+        }
+        
+        Component render(Map<String, ?> values) {
+            if (!dynamic) {
+                return fixed;
+            }
+            TextComponent.Builder line = Component.text();
+            for (Object part : parts) {
+                line.append(part instanceof Hole hole ? hole.fill(values) : (Component) part);
+            }
+            return line.build();
+        }
+        
+        void collectKeys(Set<String> keys) {
+            if (parts == null) {
+                return;
+            }
+            for (Object part : parts) {
+                if (part instanceof Hole hole) {
+                    keys.add(hole.key);
+                }
+            }
+        }
+    }
+    
+    // a placeholder and the style its value is shown in
+    private record Hole(String key, Style style) {
+        
+        Component fill(Map<String, ?> values) {
+            Object value = values.get(key);
+            if (value == null) {
+                // leave the placeholder visible so a missing value is easy to spot
+                return Component.text("{" + key + "}", style);
+            }
+            if (value instanceof Component component) {
+                return component.applyFallbackStyle(style);
+            }
+            return Component.text(String.valueOf(value), style);
+        }
+    }
+}
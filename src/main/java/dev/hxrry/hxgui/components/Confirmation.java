@@ -51,7 +51,7 @@ public class Confirmation {
             .build();
         
         // fill background with gray glass
-        ItemStack filler = ItemBuilder.filler(Material.GRAY_STAINED_GLASS_PANE);
+        MenuItem filler = ItemBuilder.fillerItem(Material.GRAY_STAINED_GLASS_PANE);
         for (int i = 0; i < 27; i++) {
             menu.setItem(i, filler);
         }
@@ -105,7 +105,7 @@ public class Confirmation {
     // build and setup the menu
     private void setupMenu(Player player) {
         // confirm button
-        menu.setItem(confirmSlot, new MenuItem(confirmItem, event -> {
+        menu.setItem(confirmSlot, MenuItem.shared(confirmItem, event -> {
             player.closeInventory();
             if (onConfirm != null) {
                 onConfirm.run();
@@ -113,7 +113,7 @@ public class Confirmation {
         }));
         
         // cancel button
-        menu.setItem(cancelSlot, new MenuItem(cancelItem, event -> {
+        menu.setItem(cancelSlot, MenuItem.shared(cancelItem, event -> {
             player.closeInventory();
             if (onCancel != null) {
                 onCancel.run();
@@ -122,7 +122,7 @@ public class Confirmation {
         
         // info item
         if (infoItem != null) {
-            menu.setItem(infoSlot, infoItem);
+            menu.setItem(infoSlot, MenuItem.shared(infoItem));
         }
     }
     
@@ -1,14 +1,29 @@
 package dev.hxrry.hxgui.components;
 
 import dev.hxrry.hxgui.builders.ItemBuilder;
+import dev.hxrry.hxgui.core.MenuItem;
 import org.bukkit.Material;
 import org.bukkit.inventory.ItemStack;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
 
 public class PageIndicator {
     
+    // rendered indicators shared by every menu, least recently used goes first
+    private static volatile int maxCacheSize = 256;
+    private static final Map<Style, MenuItem> CACHE = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Style, MenuItem> eldest) {
+            return size() > maxCacheSize;
+        }
+    };
+    private static final LongAdder CACHE_HITS = new LongAdder();
+    private static final LongAdder CACHE_MISSES = new LongAdder();
+    
     private final int currentPage;
     private final int totalPages;
     private Material material = Material.BOOK;
@@ -16,6 +31,8 @@ public class PageIndicator {
     private boolean showProgressBar = false;
     private boolean showItemCount = false;
     private int totalItems = 0;
+    private String itemCountFormat = "<gray>Total items: <white>%items%";
+    private boolean showNavigation = true;
     
     public PageIndicator(int currentPage, int totalPages) {
         // pages are 0-indexed internally but show as 1-indexed
@@ -48,8 +65,48 @@ public class PageIndicator {
         return this;
     }
     
-    // build the indicator item
+    // set custom item count format, %items% is the count
+    public PageIndicator itemCountFormat(String format) {
+        this.itemCountFormat = format;
+        return this;
+    }
+    
+    // show or hide the previous and next page hints
+    public PageIndicator showNavigation(boolean show) {
+        this.showNavigation = show;
+        return this;
+    }
+    
+    // build the indicator item, repeated styles and pages come from the cache
     public ItemStack build() {
+        return cachedItem().getItem().clone();
+    }
+    
+    // shared item for this style and page, callers must not change it
+    MenuItem cachedItem() {
+        Style style = new Style(material, nameFormat, showProgressBar, showItemCount,
+            showItemCount ? totalItems : 0, showItemCount ? itemCountFormat : null, showNavigation,
+            currentPage, totalPages);
+        
+        synchronized (CACHE) {
+            MenuItem cached = CACHE.get(style);
+            if (cached != null) {
+                CACHE_HITS.increment();
+                return cached;
+            }
+        }
+        
+        // render outside the lock, a racing thread renders the same item at worst
+        CACHE_MISSES.increment();
+        MenuItem item = new MenuItem(render());
+        synchronized (CACHE) {
+            MenuItem existing = CACHE.putIfAbsent(style, item);
+            return existing != null ? existing : item;
+        }
+    }
+    
+    // parse the formats into a new item
+    private ItemStack render() {
         // format the name
         String name = nameFormat
             .replace("%current%", String.valueOf(currentPage + 1))
@@ -66,14 +123,14 @@ public class PageIndicator {
         
         // add item count if enabled
         if (showItemCount) {
-            lore.add("<gray>Total items: <white>" + totalItems);
+            lore.add(itemCountFormat.replace("%items%", String.valueOf(totalItems)));
         }
         
         // add navigation hint
-        if (currentPage > 0) {
+        if (showNavigation && currentPage > 0) {
             lore.add("<gray>← Previous page available");
         }
-        if (currentPage < totalPages - 1) {
+        if (showNavigation && currentPage < totalPages - 1) {
             lore.add("<gray>Next page available →");
         }
         
@@ -103,6 +160,30 @@ public class PageIndicator {
         return bar.toString();
     }
     
+    // max number of cached indicators
+    public static void setCacheSize(int size) {
+        synchronized (CACHE) {
+            maxCacheSize = Math.max(1, size);
+            while (CACHE.size() > maxCacheSize) {
+                CACHE.remove(CACHE.keySet().iterator().next());
+            }
+        }
+    }
+    
+    public static void clearCache() {
+        synchronized (CACHE) {
+            CACHE.clear();
+        }
+    }
+    
+    public static long getCacheHits() {
+        return CACHE_HITS.sum();
+    }
+    
+    public static long getCacheMisses() {
+        return CACHE_MISSES.sum();
+    }
+    
     // static factory methods for common styles
     public static ItemStack simple(int currentPage, int totalPages) {
         return new PageIndicator(currentPage, totalPages).build();
@@ -136,4 +217,10 @@ public class PageIndicator {
             .nameFormat("<white>Page %current% / %total%")
             .build();
     }
+    
+    // everything the rendered item depends on
+    private record Style(Material material, String nameFormat, boolean progressBar, boolean itemCount,
+                         int totalItems, String itemCountFormat, boolean navigation,
+                         int currentPage, int totalPages) {
+    }
 }
\ No newline at end of file
@@ -0,0 +1,94 @@
+package dev.hxrry.hxgui.components;
+
+import dev.hxrry.hxgui.HxGUI;
+import dev.hxrry.hxgui.core.MenuItem;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.IntSupplier;
+
+/**
+ * Data behind a {@link Pagination}. Only the range a player is looking at
+ * is fetched, so a source can sit on top of a database or a huge list
+ * without building every item up front.
+ */
+public interface PageSource {
+    
+    // total number of items
+    int size();
+    
+    // items from offset, at most limit of them
+    CompletableFuture<List<MenuItem>> fetch(int offset, int limit);
+    
+    // true if every item already exists in memory, nothing is cached or prefetched
+    default boolean isMaterialized() {
+        return false;
+    }
+    
+    // page over a list, later changes to the list show up on the next page flip
+    static PageSource of(List<MenuItem> items) {
+        return new PageSource() {
+            @Override
+            public int size() {
+                return items.size();
+            }
+            
+            @Override
+            public CompletableFuture<List<MenuItem>> fetch(int offset, int limit) {
+                int from = Math.min(offset, items.size());
+                int to = Math.min(from + limit, items.size());
+                return CompletableFuture.completedFuture(new ArrayList<>(items.subList(from, to)));
+            }
+            
+            @Override
+            public boolean isMaterialized() {
+                return true;
+            }
+        };
+    }
+    
+    // build items on demand on the calling thread, prefetches call the loader from a background thread
+    static PageSource sync(IntSupplier size, Loader loader) {
+        return new PageSource() {
+            @Override
+            public int size() {
+                return size.getAsInt();
+            }
+            
+            @Override
+            public CompletableFuture<List<MenuItem>> fetch(int offset, int limit) {
+                try {
+                    return CompletableFuture.completedFuture(loader.load(offset, limit));
+                } catch (RuntimeException e) {
+                    return CompletableFuture.failedFuture(e);
+                }
+            }
+        };
+    }
+    
+    // build items on demand on the async executor, for slow lookups like database queries
+    static PageSource async(IntSupplier size, Loader loader) {
+        return new PageSource() {
+            @Override
+            public int size() {
+                return size.getAsInt();
+            }
+            
+            @Override
+            public CompletableFuture<List<MenuItem>> fetch(int offset, int limit) {
+                if (!HxGUI.isInitialized()) {
+                    return CompletableFuture.supplyAsync(() -> loader.load(offset, limit));
+                }
+                return CompletableFuture.supplyAsync(() -> loader.load(offset, limit),
+                    HxGUI.getInstance().getMenuManager().getAsyncExecutor());
+            }
+        };
+    }
+    
+    // loads one range of items
+    @FunctionalInterface
+    interface Loader {
+        List<MenuItem> load(int offset, int limit);
+    }
+}
@@ -1,24 +1,55 @@
 package dev.hxrry.hxgui.components;
 
+import dev.hxrry.hxgui.HxGUI;
 import dev.hxrry.hxgui.builders.ItemBuilder;
 import dev.hxrry.hxgui.core.MenuItem;
+import dev.hxrry.hxgui.core.MenuSession;
 import dev.hxrry.hxgui.core.PersonalMenu;
 import net.kyori.adventure.text.Component;
+import org.bukkit.Bukkit;
 import org.bukkit.Material;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.function.UnaryOperator;
+import java.util.logging.Level;
 
 public class Pagination {
     
     private final PersonalMenu menu;
     private final List<MenuItem> allItems = new ArrayList<>();
-    private final Map<UUID, Integer> playerPages = new HashMap<>();
+    private final PageSource listSource = PageSource.of(allItems);
+    private PageSource source = listSource;
+    // one instance for every cleared content slot, so an empty slot that stays empty is not rewritten
+    private final MenuItem emptySlot = MenuItem.empty();
+    // sorted, filtered and searched per player, replaces the source when set
+    private PaginationView view;
+    private final PaginationView.Listener viewListener = (uuid, newQuery) -> {
+        Player player = Bukkit.getPlayer(uuid);
+        if (player != null && this.menu.isViewedBy(player)) {
+            refresh(player, newQuery);
+        }
+    };
+    // each player's page, dropped by their session when they close the menu
+    private final MenuSession.Key<Integer> pageKey;
+    
+    // recently fetched pages of a lazy source, least recently used goes first
+    private int cachedPages = 8;
+    private final Map<Integer, CompletableFuture<List<MenuItem>>> pageCache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, CompletableFuture<List<MenuItem>>> eldest) {
+            return size() > cachedPages;
+        }
+    };
     
     // slots for content (default: entire inventory minus bottom row)
     private int startSlot = 0;
@@ -34,15 +65,36 @@ public class Pagination {
     private ItemStack nextItem;
     private ItemStack noMorePagesItem;
     
+    // buttons built once, handlers look up the clicking player
+    private MenuItem previousButton;
+    private MenuItem nextButton;
+    private MenuItem noMoreButton;
+    private UnaryOperator<PageIndicator> indicatorStyle = UnaryOperator.identity();
+    
     // items per page
     private int itemsPerPage;
     
+    // scroll by rows instead of flipping pages
+    private static final int ROW_WIDTH = 9;
+    private boolean scrolling = false;
+    private final MenuSession.Key<ScrollState> scrollKey;
+    
     public Pagination(String title, int rows) {
         this(Component.text(title), rows);
     }
     
     public Pagination(Component title, int rows) {
         this.menu = new PersonalMenu(title, rows);
+        this.pageKey = MenuSession.Key.<Integer>menu(menu, "page").onRemove((uuid, page) -> {
+            if (view != null) {
+                view.forget(uuid);
+            }
+        });
+        this.scrollKey = MenuSession.Key.<ScrollState>menu(menu, "scroll").onRemove((uuid, state) -> {
+            if (view != null) {
+                view.forget(uuid);
+            }
+        });
         this.itemsPerPage = (rows - 1) * 9; // leave bottom row for navigation
         
         // default navigation items
@@ -66,6 +118,14 @@ public class Pagination {
         this.startSlot = startSlot;
         this.endSlot = endSlot;
         this.itemsPerPage = endSlot - startSlot + 1;
+        // page boundaries moved
+        invalidate();
+        return this;
+    }
+    
+    // scroll the content area one row at a time, the area must be whole rows
+    public Pagination scrolling(boolean scrolling) {
+        this.scrolling = scrolling;
         return this;
     }
     
@@ -80,142 +140,533 @@ public class Pagination {
     // set custom navigation items
     public Pagination previousItem(ItemStack item) {
         this.previousItem = item;
+        this.previousButton = null;
         return this;
     }
     
     public Pagination nextItem(ItemStack item) {
         this.nextItem = item;
+        this.nextButton = null;
         return this;
     }
     
     public Pagination noMorePagesItem(ItemStack item) {
         this.noMorePagesItem = item;
+        this.noMoreButton = null;
+        return this;
+    }
+    
+    // style the page info item, for example indicator -> indicator.showProgressBar(true)
+    public Pagination indicator(UnaryOperator<PageIndicator> style) {
+        this.indicatorStyle = style;
+        return this;
+    }
+    
+    // the plain book info item, the indicator style is applied on top
+    private PageIndicator infoIndicator(int page, int totalPages, Player player) {
+        return new PageIndicator(page, totalPages)
+            .showItemCount(sourceFor(player).size())
+            .itemCountFormat("<gray>Total items: %items%")
+            .showNavigation(false);
+    }
+    
+    private MenuItem previousButton() {
+        if (previousButton == null) {
+            previousButton = new MenuItem(previousItem, event -> {
+                if (event.getWhoClicked() instanceof Player player) {
+                    step(player, -1);
+                }
+            });
+        }
+        return previousButton;
+    }
+    
+    private MenuItem nextButton() {
+        if (nextButton == null) {
+            nextButton = new MenuItem(nextItem, event -> {
+                if (event.getWhoClicked() instanceof Player player) {
+                    step(player, 1);
+                }
+            });
+        }
+        return nextButton;
+    }
+    
+    private MenuItem noMoreButton() {
+        if (noMoreButton == null) {
+            noMoreButton = new MenuItem(noMorePagesItem);
+        }
+        return noMoreButton;
+    }
+    
+    // one button press, a row when scrolling and a page otherwise
+    private void step(Player player, int direction) {
+        if (scrolling) {
+            scroll(player, direction);
+        } else {
+            setPage(player, getPage(player) + direction);
+        }
+    }
+    
+    // page over a lazy source instead of the item list
+    public Pagination source(PageSource source) {
+        this.source = source;
+        invalidate();
+        return this;
+    }
+    
+    // let players sort, filter and search, each sees their own result
+    public Pagination view(PaginationView view) {
+        // a replaced view must not keep refreshing this pagination
+        if (this.view != null) {
+            this.view.removeListener(viewListener);
+        }
+        this.view = view;
+        view.addListener(viewListener);
+        return this;
+    }
+    
+    // number of lazily fetched pages kept around
+    public Pagination cacheSize(int pages) {
+        synchronized (pageCache) {
+            this.cachedPages = Math.max(1, pages);
+        }
         return this;
     }
     
+    // drop cached pages, call when the data behind a lazy source changed
+    public void invalidate() {
+        synchronized (pageCache) {
+            pageCache.clear();
+        }
+    }
+    
     // add items to paginate
     public Pagination addItem(MenuItem item) {
+        checkListSource();
         allItems.add(item);
         return this;
     }
     
     public Pagination addItem(ItemStack item) {
+        checkListSource();
         allItems.add(new MenuItem(item, null));
         return this;
     }
     
     public Pagination addItems(List<MenuItem> items) {
+        checkListSource();
         allItems.addAll(items);
         return this;
     }
     
     // set all items at once
     public Pagination setItems(List<MenuItem> items) {
+        checkListSource();
         allItems.clear();
         allItems.addAll(items);
         return this;
     }
     
+    private void checkListSource() {
+        if (source != listSource || view != null) {
+            throw new IllegalStateException("Items come from a PageSource, update the source instead");
+        }
+    }
+    
     // get current page for player
     public int getPage(Player player) {
-        return playerPages.getOrDefault(player.getUniqueId(), 0);
+        if (!HxGUI.isInitialized()) {
+            return 0;
+        }
+        MenuSession session = HxGUI.getInstance().getMenuManager().getSessions().find(player.getUniqueId());
+        if (session == null) {
+            return 0;
+        }
+        if (scrolling) {
+            ScrollState state = session.get(scrollKey);
+            return state != null ? state.top / state.rows() : 0;
+        }
+        return session.getOrDefault(pageKey, 0);
     }
     
     // get total pages
     public int getTotalPages() {
-        return (int) Math.ceil((double) allItems.size() / itemsPerPage);
+        return (int) Math.ceil((double) source.size() / itemsPerPage);
+    }
+    
+    // get total pages a player can flip through
+    public int getTotalPages(Player player) {
+        return (int) Math.ceil((double) sourceFor(player).size() / itemsPerPage);
+    }
+    
+    // items a player pages over
+    private PageSource sourceFor(Player player) {
+        return view != null ? view.sourceFor(player) : source;
     }
     
     // set page for player
     public void setPage(Player player, int page) {
+        if (scrolling) {
+            ScrollState state = scrollState(player);
+            if (state != null) {
+                scrollTo(player, state, page * state.rows());
+            }
+            return;
+        }
+        
         // clamp to valid range
-        page = Math.max(0, Math.min(page, getTotalPages() - 1));
-        playerPages.put(player.getUniqueId(), page);
+        page = Math.max(0, Math.min(page, getTotalPages(player) - 1));
+        HxGUI.getInstance().getMenuManager().getSession(player).put(pageKey, page);
         updatePage(player);
     }
     
     // update the display for a player
     private void updatePage(Player player) {
         int page = getPage(player);
-        int totalPages = getTotalPages();
+        PageSource source = sourceFor(player);
+        CompletableFuture<List<MenuItem>> future = fetchPage(source, page, false);
         
-        // clear content area
-        for (int slot = startSlot; slot <= endSlot; slot++) {
-            menu.setItemFor(player, slot, MenuItem.empty());
+        if (future.isDone()) {
+            showPage(player, page, future);
+        } else {
+            // draw once the page arrives, unless the player moved on meanwhile
+            future.whenComplete((items, error) -> menu.enqueue(() -> {
+                if (menu.isViewedBy(player) && getPage(player) == page) {
+                    showPage(player, page, future);
+                }
+            }));
         }
         
-        // add items for current page
-        int startIndex = page * itemsPerPage;
-        int endIndex = Math.min(startIndex + itemsPerPage, allItems.size());
-        
-        int slot = startSlot;
-        for (int i = startIndex; i < endIndex && slot <= endSlot; i++) {
-            menu.setItemFor(player, slot, allItems.get(i));
-            slot++;
+        // warm up the pages a player is likely to flip to next
+        prefetch(source, page);
+    }
+    
+    // get a page, lazy sources go through the cache
+    private CompletableFuture<List<MenuItem>> fetchPage(PageSource source, int page, boolean background) {
+        int offset = page * itemsPerPage;
+        if (source.isMaterialized()) {
+            return source.fetch(offset, itemsPerPage);
         }
         
-        // add navigation buttons
+        synchronized (pageCache) {
+            CompletableFuture<List<MenuItem>> future = pageCache.get(page);
+            // failed fetches are retried
+            if (future != null && !future.isCompletedExceptionally()) {
+                return future;
+            }
+            
+            int limit = itemsPerPage;
+            future = background ?
+                CompletableFuture.supplyAsync(() -> source.fetch(offset, limit), HxGUI.getInstance().getMenuManager().getAsyncExecutor())
+                    .thenCompose(fetched -> fetched) :
+                source.fetch(offset, limit);
+            pageCache.put(page, future);
+            return future;
+        }
+    }
+    
+    // fetch the pages around the current one in the background
+    private void prefetch(PageSource source, int page) {
+        if (source.isMaterialized()) {
+            return;
+        }
+        if (page + 1 < getTotalPages()) {
+            fetchPage(source, page + 1, true);
+        }
         if (page > 0) {
-            // previous button
-            menu.setItemFor(player, previousSlot, new MenuItem(previousItem, event -> {
-                setPage(player, page - 1);
-            }));
-        } else {
-            // no previous pages
-            menu.setItemFor(player, previousSlot, new MenuItem(noMorePagesItem));
+            fetchPage(source, page - 1, true);
+        }
+    }
+    
+    // draw a fetched page
+    private void showPage(Player player, int page, CompletableFuture<List<MenuItem>> future) {
+        int totalPages = getTotalPages(player);
+        List<MenuItem> pageItems;
+        try {
+            pageItems = future.join();
+        } catch (CompletionException e) {
+            HxGUI.getInstance().getPlugin().getLogger()
+                .log(Level.WARNING, "failed to load page " + (page + 1), e.getCause());
+            pageItems = List.of();
         }
         
-        if (page < totalPages - 1) {
-            // next button
-            menu.setItemFor(player, nextSlot, new MenuItem(nextItem, event -> {
-                setPage(player, page + 1);
-            }));
-        } else {
-            // no more pages
-            menu.setItemFor(player, nextSlot, new MenuItem(noMorePagesItem));
+        // add navigation buttons, the same instances for every player and page
+        MenuItem previous = page > 0 ? previousButton() : noMoreButton();
+        MenuItem next = page < totalPages - 1 ? nextButton() : noMoreButton();
+        
+        // page info, rendered once per page and count
+        MenuItem info = null;
+        if (infoSlot >= 0) {
+            info = indicatorStyle.apply(infoIndicator(page, totalPages, player))
+                .cachedItem();
         }
         
-        // page info
+        List<MenuItem> content = pageItems;
+        sendView(player, i -> i < content.size() ? content.get(i) : null, previous, next, info);
+    }
+    
+    // draw a scroll window from the player's ring of rows
+    private void showWindow(Player player, ScrollState state) {
+        int maxTop = maxTop(player, state.rows());
+        
+        MenuItem previous = state.top > 0 ? previousButton() : noMoreButton();
+        MenuItem next = state.top < maxTop ? nextButton() : noMoreButton();
+        
+        MenuItem info = null;
         if (infoSlot >= 0) {
-            ItemStack infoItem = new ItemBuilder(Material.BOOK)
-                .name("<yellow>Page " + (page + 1) + " of " + totalPages)
-                .lore("<gray>Total items: " + allItems.size())
-                .build();
-            menu.setItemFor(player, infoSlot, new MenuItem(infoItem));
+            int totalRows = totalRows(player);
+            int lastRow = Math.min(state.top + state.rows(), totalRows);
+            info = indicatorStyle.apply(infoIndicator(state.top, maxTop + 1, player)
+                .nameFormat("<yellow>Rows " + (state.top + 1) + "-" + lastRow + " of " + totalRows))
+                .cachedItem();
         }
+        
+        sendView(player, i -> state.get(i / ROW_WIDTH, i % ROW_WIDTH), previous, next, info);
     }
-
+    
+    // write the content area and navigation as one array, empty content slots are cleared.
+    // slots already showing the same item are left out, after a one row scroll that is
+    // every slot whose item did not move, the renderer then skips equal stacks among the rest
+    private void sendView(Player player, IntFunction<MenuItem> content, MenuItem previous, MenuItem next, MenuItem info) {
+        // compare against what the player sees right now, not what a queued write will show
+        if (!menu.isOwningThread()) {
+            menu.enqueue(() -> sendView(player, content, previous, next, info));
+            return;
+        }
+        
+        int contentSize = endSlot - startSlot + 1;
+        int[] slots = new int[contentSize + 3];
+        MenuItem[] viewSlots = new MenuItem[contentSize + 3];
+        int count = 0;
+        
+        for (int i = 0; i < contentSize; i++) {
+            MenuItem item = content.apply(i);
+            count = stage(player, slots, viewSlots, count, startSlot + i, item != null ? item : emptySlot);
+        }
+        
+        count = stage(player, slots, viewSlots, count, previousSlot, previous);
+        count = stage(player, slots, viewSlots, count, nextSlot, next);
+        if (info != null) {
+            count = stage(player, slots, viewSlots, count, infoSlot, info);
+        }
+        
+        if (count > 0) {
+            menu.setItemsFor(player, Arrays.copyOf(slots, count), Arrays.copyOf(viewSlots, count));
+        }
+    }
+    
+    // add a slot to the write unless the player already sees that exact item there
+    private int stage(Player player, int[] slots, MenuItem[] items, int count, int slot, MenuItem item) {
+        if (menu.getItemFor(player, slot) == item) {
+            return count;
+        }
+        slots[count] = slot;
+        items[count] = item;
+        return count + 1;
+    }
+    
+    // scroll a player's view by rows, negative scrolls up
+    public void scroll(Player player, int rows) {
+        ScrollState state = scrollState(player);
+        if (state != null) {
+            scrollTo(player, state, state.top + rows);
+        }
+    }
+    
+    private void scrollTo(Player player, ScrollState state, int top) {
+        // one step at a time, scrolls while a row is loading are dropped
+        if (state.loading) {
+            return;
+        }
+        int visible = state.rows();
+        int target = Math.max(0, Math.min(top, maxTop(player, visible)));
+        int delta = target - state.top;
+        if (delta == 0) {
+            return;
+        }
+        if (Math.abs(delta) >= visible) {
+            loadWindow(player, state, target);
+            return;
+        }
+        
+        // only the rows coming into view are fetched, the rest stay in the ring
+        int firstRow = delta > 0 ? state.top + visible : target;
+        loadRows(player, state, firstRow, Math.abs(delta), items -> state.shift(target, delta, items));
+    }
+    
+    // refill the whole window
+    private void loadWindow(Player player, ScrollState state, int top) {
+        loadRows(player, state, top, state.rows(), items -> state.fill(top, items));
+    }
+    
+    // fetch rows, hand them to the ring and redraw
+    private void loadRows(Player player, ScrollState state, int firstRow, int rowCount, Consumer<List<MenuItem>> apply) {
+        state.loading = true;
+        CompletableFuture<List<MenuItem>> future = sourceFor(player).fetch(firstRow * ROW_WIDTH, rowCount * ROW_WIDTH);
+        Runnable done = () -> {
+            state.loading = false;
+            try {
+                apply.accept(future.join());
+            } catch (CompletionException e) {
+                // keep showing the old rows
+                HxGUI.getInstance().getPlugin().getLogger()
+                    .log(Level.WARNING, "failed to load rows from " + (firstRow + 1), e.getCause());
+                return;
+            }
+            showWindow(player, state);
+        };
+        
+        if (future.isDone()) {
+            done.run();
+        } else {
+            future.whenComplete((items, error) -> menu.enqueue(done));
+        }
+    }
+    
+    private ScrollState scrollState(Player player) {
+        if (!scrolling) {
+            throw new IllegalStateException("Scrolling is not enabled, call scrolling(true) first");
+        }
+        MenuSession session = HxGUI.getInstance().getMenuManager().getSessions().find(player.getUniqueId());
+        return session != null ? session.get(scrollKey) : null;
+    }
+    
+    private int totalRows(Player player) {
+        return (sourceFor(player).size() + ROW_WIDTH - 1) / ROW_WIDTH;
+    }
+    
+    // last row the window can start at
+    private int maxTop(Player player, int visible) {
+        return Math.max(0, totalRows(player) - visible);
+    }
+    
+    // redraw after the items changed, a new query starts over at the top
+    private void refresh(Player player, boolean newQuery) {
+        if (!scrolling) {
+            setPage(player, newQuery ? 0 : getPage(player));
+            return;
+        }
+        ScrollState state = scrollState(player);
+        if (state != null && !state.loading) {
+            loadWindow(player, state, newQuery ? 0 : Math.min(state.top, maxTop(player, state.rows())));
+        }
+    }
+    
     public void open(Player player) {
         // initialize page if needed
-        if (!playerPages.containsKey(player.getUniqueId())) {
-            playerPages.put(player.getUniqueId(), 0);
+        if (!HxGUI.isInitialized()) {
+            throw new IllegalStateException("HxGUI library not initialized! Call HxGUI.init(plugin) in your onEnable()");
         }
+        MenuSession session = HxGUI.getInstance().getMenuManager().getSession(player);
         
         // ensure inventory exists BEFORE updating items
         menu.getInventory(player);  
         
+        if (scrolling) {
+            if (startSlot % ROW_WIDTH != 0 || itemsPerPage % ROW_WIDTH != 0) {
+                throw new IllegalStateException("Scrolling needs a content area made of whole rows");
+            }
+            ScrollState state = session.computeIfAbsent(scrollKey, () -> new ScrollState(itemsPerPage / ROW_WIDTH));
+            loadWindow(player, state, state.top);
+            menu.open(player);
+            return;
+        }
+        session.computeIfAbsent(pageKey, () -> 0);
+        
         // update and open
         updatePage(player);
         menu.open(player);
     }
     
-    // next page for player
+    // next page for player, in scroll mode a whole window down
     public void nextPage(Player player) {
+        if (scrolling) {
+            scroll(player, itemsPerPage / ROW_WIDTH);
+            return;
+        }
         setPage(player, getPage(player) + 1);
     }
     
     // previous page for player
     public void previousPage(Player player) {
+        if (scrolling) {
+            scroll(player, -(itemsPerPage / ROW_WIDTH));
+            return;
+        }
         setPage(player, getPage(player) - 1);
     }
     
-    // cleanup when player closes
+    // drop a player's page early, the menu manager does this on close anyway
     public void onClose(Player player) {
-        playerPages.remove(player.getUniqueId());
+        if (!HxGUI.isInitialized()) {
+            return;
+        }
+        MenuSession session = HxGUI.getInstance().getMenuManager().getSessions().find(player.getUniqueId());
+        if (session != null) {
+            session.remove(pageKey);
+            session.remove(scrollKey);
+        }
     }
     
     // get the underlying menu
     public PersonalMenu getMenu() {
         return menu;
     }
-}
\ No newline at end of file
+    
+    // visible rows of one player's scroll window, kept as a ring so a scroll only replaces the rows that move in
+    private static final class ScrollState {
+        final MenuItem[][] ring;
+        int head = 0;
+        int top = 0;
+        boolean loading = false;
+        
+        ScrollState(int rows) {
+            this.ring = new MenuItem[rows][ROW_WIDTH];
+        }
+        
+        int rows() {
+            return ring.length;
+        }
+        
+        // item at a row and column of the window
+        MenuItem get(int row, int column) {
+            return ring[(head + row) % ring.length][column];
+        }
+        
+        // replace every row
+        void fill(int top, List<MenuItem> items) {
+            head = 0;
+            for (int row = 0; row < ring.length; row++) {
+                copyRow(ring[row], items, row);
+            }
+            this.top = top;
+        }
+        
+        // move the window, items holds only the rows coming into view
+        void shift(int top, int delta, List<MenuItem> items) {
+            int rows = ring.length;
+            if (delta > 0) {
+                // rows leaving at the top are reused for the new bottom rows
+                for (int row = 0; row < delta; row++) {
+                    copyRow(ring[head], items, row);
+                    head = (head + 1) % rows;
+                }
+            } else {
+                // rows leaving at the bottom are reused for the new top rows
+                for (int row = -delta - 1; row >= 0; row--) {
+                    head = (head - 1 + rows) % rows;
+                    copyRow(ring[head], items, row);
+                }
+            }
+            this.top = top;
+        }
+        
+        private static void copyRow(MenuItem[] row, List<MenuItem> items, int index) {
+            for (int column = 0; column < ROW_WIDTH; column++) {
+                int i = index * ROW_WIDTH + column;
+                row[column] = i < items.size() ? items.get(i) : null;
+            }
+        }
+    }
+}
@@ -0,0 +1,498 @@
+package dev.hxrry.hxgui.components;
+
+import dev.hxrry.hxgui.core.MenuItem;
+import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Sortable, filterable and searchable list of items for a {@link Pagination}.
+ *
+ * Every registered sort keeps an array of item ids in sorted order, and
+ * names are kept in a sorted array for prefix search. Each player's result
+ * is worked out once when their query changes and then patched in place as
+ * items come and go, so a page flip never sorts anything.
+ *
+ * Like the rest of the menu state, a view is only touched from the main
+ * thread (the global region on Folia).
+ */
+public class PaginationView {
+    
+    private final Function<MenuItem, String> nameOf;
+    
+    // items by id, null once removed, ids are never reused
+    private final List<MenuItem> items = new ArrayList<>();
+    private final List<String> names = new ArrayList<>();
+    private final Map<MenuItem, Integer> ids = new IdentityHashMap<>();
+    
+    private final Map<String, SortIndex> sorts = new HashMap<>();
+    private final Map<String, Predicate<MenuItem>> filters = new HashMap<>();
+    private final SortIndex nameIndex;
+    
+    // each player's query and its cached result
+    private final Map<UUID, Result> results = new HashMap<>();
+    private final List<Listener> listeners = new ArrayList<>();
+    
+    // search by the item's display name, or its material when it has none
+    public PaginationView() {
+        this(PaginationView::displayName);
+    }
+    
+    // search by a custom name, for example a player or listing name
+    public PaginationView(Function<MenuItem, String> nameOf) {
+        this.nameOf = nameOf;
+        this.nameIndex = new SortIndex((a, b) -> {
+            int result = names.get(a).compareTo(names.get(b));
+            return result != 0 ? result : Integer.compare(a, b);
+        });
+    }
+    
+    // register a sort, players pick it by key
+    public PaginationView sortBy(String key, Comparator<MenuItem> comparator) {
+        sorts.put(key, new SortIndex((a, b) -> {
+            int result = comparator.compare(items.get(a), items.get(b));
+            return result != 0 ? result : Integer.compare(a, b);
+        }));
+        return this;
+    }
+    
+    // register a filter, players pick it by key
+    public PaginationView filterBy(String key, Predicate<MenuItem> filter) {
+        filters.put(key, filter);
+        return this;
+    }
+    
+    // get notified when a player's result changed
+    public PaginationView addListener(Listener listener) {
+        listeners.add(listener);
+        return this;
+    }
+    
+    // stop notifying a listener
+    public PaginationView removeListener(Listener listener) {
+        listeners.remove(listener);
+        return this;
+    }
+    
+    // add an item, cached results are patched instead of recomputed
+    public void add(MenuItem item) {
+        checkNew(item);
+        Set<UUID> changed = new HashSet<>();
+        insert(item, changed);
+        fireAll(changed);
+    }
+    
+    // add several items, each player is notified once
+    public void addAll(List<MenuItem> items) {
+        // check everything first so a duplicate adds nothing
+        Set<MenuItem> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (MenuItem item : items) {
+            checkNew(item);
+            if (!seen.add(item)) {
+                throw new IllegalArgumentException("Item is listed twice");
+            }
+        }
+        
+        Set<UUID> changed = new HashSet<>();
+        for (MenuItem item : items) {
+            insert(item, changed);
+        }
+        fireAll(changed);
+    }
+    
+    // items are found by instance, one instance can only be in the view once
+    private void checkNew(MenuItem item) {
+        if (ids.containsKey(item)) {
+            throw new IllegalArgumentException("Item is already in the view");
+        }
+    }
+    
+    private void insert(MenuItem item, Set<UUID> changed) {
+        int id = items.size();
+        items.add(item);
+        names.add(normalize(nameOf.apply(item)));
+        ids.put(item, id);
+        
+        nameIndex.insert(id);
+        for (SortIndex sort : sorts.values()) {
+            sort.insert(id);
+        }
+        
+        for (Map.Entry<UUID, Result> entry : results.entrySet()) {
+            Result result = entry.getValue();
+            if (result.query.matches(id)) {
+                result.insert(id);
+                changed.add(entry.getKey());
+            }
+        }
+    }
+    
+    // remove an item, false if it was not in the view
+    public boolean remove(MenuItem item) {
+        Integer id = ids.remove(item);
+        if (id == null) {
+            return false;
+        }
+        
+        nameIndex.remove(id);
+        for (SortIndex sort : sorts.values()) {
+            sort.remove(id);
+        }
+        
+        // results are searched by comparing items, so they go before the item does
+        for (Map.Entry<UUID, Result> entry : results.entrySet()) {
+            if (entry.getValue().remove(id)) {
+                fire(entry.getKey(), false);
+            }
+        }
+        items.set(id, null);
+        names.set(id, null);
+        return true;
+    }
+    
+    // sort a player's view, null key goes back to insertion order
+    public void sort(Player player, String key, boolean descending) {
+        if (key != null && !sorts.containsKey(key)) {
+            throw new IllegalArgumentException("Unknown sort: " + key);
+        }
+        Query query = queryOf(player);
+        query(player, new Query(key, descending, query.filter, query.search));
+    }
+    
+    // filter a player's view, null key shows everything
+    public void filter(Player player, String key) {
+        if (key != null && !filters.containsKey(key)) {
+            throw new IllegalArgumentException("Unknown filter: " + key);
+        }
+        Query query = queryOf(player);
+        query(player, new Query(query.sort, query.descending, key, query.search));
+    }
+    
+    // only show items whose name starts with the text, null or empty clears
+    public void search(Player player, String prefix) {
+        String search = prefix == null || prefix.isEmpty() ? null : normalize(prefix);
+        Query query = queryOf(player);
+        query(player, new Query(query.sort, query.descending, query.filter, search));
+    }
+    
+    // drop a player's query and cached result
+    public void forget(UUID player) {
+        results.remove(player);
+    }
+    
+    // the player's result as a page source
+    public PageSource sourceFor(Player player) {
+        UUID uuid = player.getUniqueId();
+        return new PageSource() {
+            @Override
+            public int size() {
+                return resultOf(uuid).size;
+            }
+            
+            @Override
+            public CompletableFuture<List<MenuItem>> fetch(int offset, int limit) {
+                Result result = resultOf(uuid);
+                int from = Math.min(offset, result.size);
+                int to = Math.min(from + limit, result.size);
+                List<MenuItem> page = new ArrayList<>(to - from);
+                for (int i = from; i < to; i++) {
+                    page.add(items.get(result.ids[i]));
+                }
+                return CompletableFuture.completedFuture(page);
+            }
+            
+            @Override
+            public boolean isMaterialized() {
+                return true;
+            }
+        };
+    }
+    
+    // number of items in the view, ignoring any query
+    public int size() {
+        return ids.size();
+    }
+    
+    // number of items a player currently sees
+    public int sizeFor(Player player) {
+        return resultOf(player.getUniqueId()).size;
+    }
+    
+    private Query queryOf(Player player) {
+        Result result = results.get(player.getUniqueId());
+        return result != null ? result.query : new Query(null, false, null, null);
+    }
+    
+    private void query(Player player, Query query) {
+        results.put(player.getUniqueId(), new Result(query));
+        fire(player.getUniqueId(), true);
+    }
+    
+    private Result resultOf(UUID player) {
+        return results.computeIfAbsent(player, uuid -> new Result(new Query(null, false, null, null)));
+    }
+    
+    private void fireAll(Set<UUID> players) {
+        for (UUID player : players) {
+            fire(player, false);
+        }
+    }
+    
+    private void fire(UUID player, boolean newQuery) {
+        for (Listener listener : listeners) {
+            listener.onChange(player, newQuery);
+        }
+    }
+    
+    private static String normalize(String name) {
+        return name == null ? "" : name.toLowerCase(Locale.ROOT);
+    }
+    
+    private static String displayName(MenuItem item) {
+        ItemStack stack = item.getItem();
+        if (stack == null) {
+            return "";
+        }
+        ItemMeta meta = stack.getItemMeta();
+        if (meta != null && meta.hasDisplayName()) {
+            return PlainTextComponentSerializer.plainText().serialize(meta.displayName());
+        }
+        return stack.getType().name().replace('_', ' ');
+    }
+    
+    // orders two item ids, ties broken by id so every order is total
+    @FunctionalInterface
+    private interface IdComparator {
+        int compare(int a, int b);
+    }
+    
+    // item ids kept in sorted order, built on first use
+    private class SortIndex {
+        final IdComparator comparator;
+        int[] order;
+        int size;
+        
+        SortIndex(IdComparator comparator) {
+            this.comparator = comparator;
+        }
+        
+        int[] order() {
+            if (order == null) {
+                Integer[] boxed = ids.values().toArray(new Integer[0]);
+                Arrays.sort(boxed, (a, b) -> comparator.compare(a, b));
+                order = new int[Math.max(16, boxed.length)];
+                for (int i = 0; i < boxed.length; i++) {
+                    order[i] = boxed[i];
+                }
+                size = boxed.length;
+            }
+            return order;
+        }
+        
+        void insert(int id) {
+            if (order == null) {
+                // built lazily, the new id is picked up then
+                return;
+            }
+            int index = position(order, size, id, comparator);
+            if (size == order.length) {
+                order = Arrays.copyOf(order, size * 2);
+            }
+            System.arraycopy(order, index, order, index + 1, size - index);
+            order[index] = id;
+            size++;
+        }
+        
+        void remove(int id) {
+            if (order == null) {
+                return;
+            }
+            int index = position(order, size, id, comparator);
+            if (index < size && order[index] == id) {
+                System.arraycopy(order, index + 1, order, index, size - index - 1);
+                size--;
+            }
+        }
+    }
+    
+    // first index in ids[0, size) not ordered before id
+    private static int position(int[] ids, int size, int id, IdComparator comparator) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (comparator.compare(ids[mid], id) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+    
+    // what a player asked for
+    private class Query {
+        final String sort;
+        final boolean descending;
+        final String filter;
+        final String search;
+        
+        Query(String sort, boolean descending, String filter, String search) {
+            this.sort = sort;
+            this.descending = descending;
+            this.filter = filter;
+            this.search = search;
+        }
+        
+        boolean matches(int id) {
+            if (search != null && !names.get(id).startsWith(search)) {
+                return false;
+            }
+            return filter == null || filters.get(filter).test(items.get(id));
+        }
+        
+        // order of the result, insertion order is plain id order
+        IdComparator comparator() {
+            IdComparator base;
+            if (sort != null) {
+                base = sorts.get(sort).comparator;
+            } else if (search != null) {
+                base = nameIndex.comparator;
+            } else {
+                base = Integer::compare;
+            }
+            return descending ? (a, b) -> base.compare(b, a) : base;
+        }
+    }
+    
+    // one player's matching ids in display order
+    private class Result {
+        final Query query;
+        final IdComparator comparator;
+        int[] ids;
+        int size;
+        
+        Result(Query query) {
+            this.query = query;
+            this.comparator = query.comparator();
+            
+            if (query.search != null) {
+                collectSearch();
+                return;
+            }
+            
+            // walk an existing order instead of sorting
+            int[] source;
+            int sourceSize;
+            if (query.sort != null) {
+                SortIndex index = sorts.get(query.sort);
+                source = index.order();
+                sourceSize = index.size;
+            } else {
+                source = null;
+                sourceSize = items.size();
+            }
+            
+            ids = new int[Math.max(16, sourceSize)];
+            for (int i = 0; i < sourceSize; i++) {
+                int position = query.descending ? sourceSize - 1 - i : i;
+                int id = source != null ? source[position] : position;
+                if (items.get(id) == null) {
+                    continue;
+                }
+                if (query.filter == null || filters.get(query.filter).test(items.get(id))) {
+                    ids[size++] = id;
+                }
+            }
+        }
+        
+        // only the names starting with the search are visited, then put in display order
+        private void collectSearch() {
+            int[] order = nameIndex.order();
+            int from = prefixStart(query.search);
+            int to = from;
+            while (to < nameIndex.size && names.get(order[to]).startsWith(query.search)) {
+                to++;
+            }
+            
+            ids = new int[Math.max(16, to - from)];
+            for (int i = from; i < to; i++) {
+                int id = order[i];
+                if (query.filter == null || filters.get(query.filter).test(items.get(id))) {
+                    ids[size++] = id;
+                }
+            }
+            
+            // the range is in name order already, anything else needs a sort
+            if (query.sort != null || query.descending) {
+                Integer[] boxed = new Integer[size];
+                for (int i = 0; i < size; i++) {
+                    boxed[i] = ids[i];
+                }
+                Arrays.sort(boxed, (a, b) -> comparator.compare(a, b));
+                for (int i = 0; i < size; i++) {
+                    ids[i] = boxed[i];
+                }
+            }
+        }
+        
+        void insert(int id) {
+            int index = position(ids, size, id, comparator);
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, index, ids, index + 1, size - index);
+            ids[index] = id;
+            size++;
+        }
+        
+        boolean remove(int id) {
+            int index = position(ids, size, id, comparator);
+            if (index == size || ids[index] != id) {
+                return false;
+            }
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            size--;
+            return true;
+        }
+    }
+    
+    // first position in the name order not before the prefix
+    private int prefixStart(String prefix) {
+        int[] order = nameIndex.order();
+        int low = 0;
+        int high = nameIndex.size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (names.get(order[mid]).compareTo(prefix) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+    
+    // told when a player's result changed, newQuery is true when they picked a new query
+    @FunctionalInterface
+    public interface Listener {
+        void onChange(UUID player, boolean newQuery);
+    }
+}
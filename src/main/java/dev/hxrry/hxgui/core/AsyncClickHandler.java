@@ -0,0 +1,25 @@
+package dev.hxrry.hxgui.core;
+
+import org.bukkit.entity.Player;
+import org.bukkit.event.inventory.ClickType;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Click handler that does its work off the main thread. It runs on a
+ * virtual thread, so blocking calls (database, http) are fine, but the
+ * player and the world must not be touched from it.
+ *
+ * The future completes with the item the slot should show afterwards, or
+ * null to put the clicked item back. The result is applied on the main
+ * thread.
+ */
+@FunctionalInterface
+public interface AsyncClickHandler {
+    
+    CompletableFuture<MenuItem> handle(Context context);
+    
+    // what was clicked, safe to read from any thread
+    record Context(Player player, Menu menu, int slot, ClickType click) {
+    }
+}
@@ -0,0 +1,63 @@
+package dev.hxrry.hxgui.core;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// single main thread, everything runs there
+public class BukkitMenuScheduler implements MenuScheduler {
+    
+    private final Plugin plugin;
+    private final List<BukkitTask> tasks = new ArrayList<>();
+    
+    public BukkitMenuScheduler(Plugin plugin) {
+        this.plugin = plugin;
+    }
+    
+    @Override
+    public boolean isGlobalThread() {
+        return Bukkit.isPrimaryThread();
+    }
+    
+    @Override
+    public boolean isViewerThread(Player player) {
+        return Bukkit.isPrimaryThread();
+    }
+    
+    @Override
+    public void runGlobal(Runnable task) {
+        if (Bukkit.isPrimaryThread()) {
+            task.run();
+        } else {
+            Bukkit.getScheduler().runTask(plugin, task);
+        }
+    }
+    
+    @Override
+    public void runForViewer(Player player, Runnable task) {
+        // viewers share the main thread with everything else
+        runGlobal(task);
+    }
+    
+    @Override
+    public void repeatGlobal(Runnable task, long periodTicks) {
+        tasks.add(Bukkit.getScheduler().runTaskTimer(plugin, task, periodTicks, periodTicks));
+    }
+    
+    @Override
+    public boolean isRegionized() {
+        return false;
+    }
+    
+    @Override
+    public void shutdown() {
+        for (BukkitTask task : tasks) {
+            task.cancel();
+        }
+        tasks.clear();
+    }
+}
@@ -0,0 +1,141 @@
+package dev.hxrry.hxgui.core;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per player click limiter for menus. Each player gets a token bucket that
+ * refills over time, and optionally a cooldown between clicks on the same
+ * slot. Clicks over the limit are cancelled before they reach any handler.
+ *
+ * Off by default so menus behave as they always did, turn it on with
+ * {@code HxGUI.getInstance().getMenuManager().getClickLimiter().enabled(true)}.
+ * Only clicks on the menu itself are counted, not on the player's own inventory.
+ */
+public class ClickLimiter {
+    
+    private volatile boolean enabled = false;
+    private volatile int capacity = 20;
+    private volatile double refillPerSecond = 10.0;
+    private volatile long slotCooldownNanos = 0L;
+    
+    private final Map<UUID, Bucket> buckets = new ConcurrentHashMap<>();
+    
+    // counters
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder droppedByRate = new LongAdder();
+    private final LongAdder droppedByCooldown = new LongAdder();
+    
+    // turn limiting on or off
+    public ClickLimiter enabled(boolean enabled) {
+        this.enabled = enabled;
+        return this;
+    }
+    
+    // max clicks a player can burst
+    public ClickLimiter capacity(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be at least 1");
+        }
+        this.capacity = capacity;
+        return this;
+    }
+    
+    // sustained clicks per second
+    public ClickLimiter refillPerSecond(double refillPerSecond) {
+        if (refillPerSecond <= 0) {
+            throw new IllegalArgumentException("refill rate must be positive");
+        }
+        this.refillPerSecond = refillPerSecond;
+        return this;
+    }
+    
+    // min time between clicks on the same slot, 0 disables
+    public ClickLimiter slotCooldown(long duration, TimeUnit unit) {
+        this.slotCooldownNanos = unit.toNanos(duration);
+        return this;
+    }
+    
+    // check if a click may go through, counts it either way
+    public boolean tryClick(UUID player, int slot) {
+        if (!enabled) {
+            allowed.increment();
+            return true;
+        }
+        
+        Bucket bucket = buckets.computeIfAbsent(player, uuid -> new Bucket(capacity));
+        long now = System.nanoTime();
+        
+        // a player's clicks come from one thread at a time, the lock is uncontended
+        synchronized (bucket) {
+            long cooldown = slotCooldownNanos;
+            if (cooldown > 0 && slot == bucket.lastSlot && now - bucket.lastClick < cooldown) {
+                droppedByCooldown.increment();
+                return false;
+            }
+            
+            // refill for the time since the last click
+            double elapsed = (now - bucket.lastRefill) / 1_000_000_000.0;
+            bucket.tokens = Math.min(capacity, bucket.tokens + elapsed * refillPerSecond);
+            bucket.lastRefill = now;
+            
+            if (bucket.tokens < 1.0) {
+                droppedByRate.increment();
+                return false;
+            }
+            
+            bucket.tokens -= 1.0;
+            bucket.lastSlot = slot;
+            bucket.lastClick = now;
+        }
+        
+        allowed.increment();
+        return true;
+    }
+    
+    // forget a player, called on quit
+    public void reset(UUID player) {
+        buckets.remove(player);
+    }
+    
+    // forget everyone
+    public void clear() {
+        buckets.clear();
+    }
+    
+    // getters
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    public long getAllowedClicks() {
+        return allowed.sum();
+    }
+    
+    public long getDroppedClicks() {
+        return droppedByRate.sum() + droppedByCooldown.sum();
+    }
+    
+    public long getDroppedByRate() {
+        return droppedByRate.sum();
+    }
+    
+    public long getDroppedByCooldown() {
+        return droppedByCooldown.sum();
+    }
+    
+    // state for one player
+    private static class Bucket {
+        double tokens;
+        long lastRefill = System.nanoTime();
+        long lastClick = 0L;
+        int lastSlot = -1;
+        
+        Bucket(int capacity) {
+            this.tokens = capacity;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package dev.hxrry.hxgui.core;
+
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// regionized server, shared state on the global region and inventories on the player's region
+public class FoliaMenuScheduler implements MenuScheduler {
+    
+    private final Plugin plugin;
+    private final List<ScheduledTask> tasks = new CopyOnWriteArrayList<>();
+    
+    public FoliaMenuScheduler(Plugin plugin) {
+        this.plugin = plugin;
+    }
+    
+    @Override
+    public boolean isGlobalThread() {
+        return Bukkit.isGlobalTickThread();
+    }
+    
+    @Override
+    public boolean isViewerThread(Player player) {
+        return Bukkit.isOwnedByCurrentRegion(player);
+    }
+    
+    @Override
+    public void runGlobal(Runnable task) {
+        if (Bukkit.isGlobalTickThread()) {
+            task.run();
+        } else {
+            Bukkit.getGlobalRegionScheduler().execute(plugin, task);
+        }
+    }
+    
+    @Override
+    public void runForViewer(Player player, Runnable task) {
+        if (Bukkit.isOwnedByCurrentRegion(player)) {
+            task.run();
+        } else {
+            // returns null once the player is gone, nothing left to render then
+            player.getScheduler().run(plugin, scheduled -> task.run(), null);
+        }
+    }
+    
+    @Override
+    public void repeatGlobal(Runnable task, long periodTicks) {
+        tasks.add(Bukkit.getGlobalRegionScheduler().runAtFixedRate(plugin, scheduled -> task.run(), periodTicks, periodTicks));
+    }
+    
+    @Override
+    public boolean isRegionized() {
+        return true;
+    }
+    
+    @Override
+    public void shutdown() {
+        for (ScheduledTask task : tasks) {
+            task.cancel();
+        }
+        tasks.clear();
+    }
+}
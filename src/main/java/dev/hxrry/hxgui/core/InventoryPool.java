@@ -0,0 +1,141 @@
+package dev.hxrry.hxgui.core;
+
+import org.bukkit.inventory.Inventory;
+
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Keeps closed inventories around so the next viewer can reuse one instead
+ * of allocating a new one.
+ *
+ * Bukkit binds an inventory to its holder, title and size when it is
+ * created, so a pool only holds inventories of one shape, see
+ * {@link InventoryPools}. A reused inventory is not cleared, what it shows
+ * travels with it and the next open only rewrites the slots that differ.
+ * Inventories the pool lets go of are handed to the eviction callback.
+ */
+public class InventoryPool {
+    
+    // totals across every pool
+    private static final LongAdder TOTAL_HITS = new LongAdder();
+    private static final LongAdder TOTAL_MISSES = new LongAdder();
+    
+    private final Deque<Inventory> free = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger freeCount = new AtomicInteger();
+    private volatile int maxSize;
+    private final Consumer<Inventory> onEvict;
+    private volatile long lastUsed = System.nanoTime();
+    
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder discarded = new LongAdder();
+    
+    public InventoryPool(int maxSize) {
+        this(maxSize, inv -> {});
+    }
+    
+    // onEvict sees every inventory that is dropped instead of pooled
+    public InventoryPool(int maxSize, Consumer<Inventory> onEvict) {
+        this.maxSize = maxSize;
+        this.onEvict = onEvict;
+    }
+    
+    // take a pooled inventory or create one
+    public Inventory acquire(Supplier<Inventory> factory) {
+        lastUsed = System.nanoTime();
+        Inventory inv = free.pollFirst();
+        if (inv != null) {
+            freeCount.decrementAndGet();
+            hits.increment();
+            TOTAL_HITS.increment();
+            return inv;
+        }
+        misses.increment();
+        TOTAL_MISSES.increment();
+        return factory.get();
+    }
+    
+    // give an inventory back, false if the pool is full and it was dropped
+    public boolean release(Inventory inv) {
+        lastUsed = System.nanoTime();
+        if (freeCount.incrementAndGet() > maxSize) {
+            freeCount.decrementAndGet();
+            discarded.increment();
+            onEvict.accept(inv);
+            return false;
+        }
+        free.addFirst(inv);
+        return true;
+    }
+    
+    // drop every pooled inventory
+    public void clear() {
+        Inventory inv;
+        while ((inv = free.pollFirst()) != null) {
+            freeCount.decrementAndGet();
+            onEvict.accept(inv);
+        }
+    }
+    
+    // cap on pooled inventories, 0 disables pooling
+    public void setMaxSize(int maxSize) {
+        this.maxSize = maxSize;
+        Inventory inv;
+        while (freeCount.get() > maxSize && (inv = free.pollLast()) != null) {
+            freeCount.decrementAndGet();
+            onEvict.accept(inv);
+        }
+    }
+    
+    // getters
+    public int getMaxSize() {
+        return maxSize;
+    }
+    
+    // System.nanoTime() of the last acquire or release
+    public long getLastUsed() {
+        return lastUsed;
+    }
+    
+    public int getPooledCount() {
+        return freeCount.get();
+    }
+    
+    public long getHits() {
+        return hits.sum();
+    }
+    
+    public long getMisses() {
+        return misses.sum();
+    }
+    
+    public long getDiscarded() {
+        return discarded.sum();
+    }
+    
+    public double getHitRate() {
+        return rate(hits.sum(), misses.sum());
+    }
+    
+    public static long getTotalHits() {
+        return TOTAL_HITS.sum();
+    }
+    
+    public static long getTotalMisses() {
+        return TOTAL_MISSES.sum();
+    }
+    
+    public static double getTotalHitRate() {
+        return rate(TOTAL_HITS.sum(), TOTAL_MISSES.sum());
+    }
+    
+    private static double rate(long hits, long misses) {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+}
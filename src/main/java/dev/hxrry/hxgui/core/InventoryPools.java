@@ -0,0 +1,84 @@
+package dev.hxrry.hxgui.core;
+
+import net.kyori.adventure.text.Component;
+import org.bukkit.event.inventory.InventoryType;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inventory pools shared by every menu, one per inventory shape.
+ *
+ * Bukkit fixes an inventory's type, size and title when it is created, so
+ * only menus agreeing on all three can share one. Menus built for every
+ * open, like a MenuLayout or a shop template, then reuse the inventories
+ * the previous copy left behind. The holder is fixed too, which is why
+ * pooled inventories are created with a {@link PooledHolder} that is
+ * pointed at the menu using them.
+ *
+ * Pools nobody used for a while are dropped by {@link #sweep()}.
+ */
+public class InventoryPools {
+    
+    private final Map<Key, InventoryPool> pools = new ConcurrentHashMap<>();
+    private volatile int maxPerPool = 8;
+    private volatile long idleNanos = TimeUnit.MINUTES.toNanos(5);
+    
+    // pool for one inventory shape, type is null for chests
+    public InventoryPool poolFor(InventoryType type, int size, Component title) {
+        return pools.computeIfAbsent(new Key(type, size, title), key -> new InventoryPool(maxPerPool));
+    }
+    
+    // drop pools that sat unused longer than the idle time
+    public void sweep() {
+        long now = System.nanoTime();
+        pools.values().removeIf(pool -> {
+            if (now - pool.getLastUsed() < idleNanos) {
+                return false;
+            }
+            pool.clear();
+            return true;
+        });
+    }
+    
+    // drop every pool
+    public void clear() {
+        pools.values().forEach(InventoryPool::clear);
+        pools.clear();
+    }
+    
+    // cap on inventories kept per shape, applied to existing pools too
+    public InventoryPools maxPerPool(int maxPerPool) {
+        this.maxPerPool = maxPerPool;
+        pools.values().forEach(pool -> pool.setMaxSize(maxPerPool));
+        return this;
+    }
+    
+    // how long an unused pool is kept
+    public InventoryPools idleTime(long time, TimeUnit unit) {
+        this.idleNanos = unit.toNanos(time);
+        return this;
+    }
+    
+    // getters
+    public int getMaxPerPool() {
+        return maxPerPool;
+    }
+    
+    public int getPoolCount() {
+        return pools.size();
+    }
+    
+    public int getPooledCount() {
+        int count = 0;
+        for (InventoryPool pool : pools.values()) {
+            count += pool.getPooledCount();
+        }
+        return count;
+    }
+    
+    // what an inventory is bound to besides its holder
+    private record Key(InventoryType type, int size, Component title) {
+    }
+}
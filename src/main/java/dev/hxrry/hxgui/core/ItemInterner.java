@@ -0,0 +1,84 @@
+package dev.hxrry.hxgui.core;
+
+import org.bukkit.inventory.ItemStack;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pool that turns equal GUI items into one canonical stack.
+ *
+ * The same filler pane or border ends up in dozens of slots across
+ * thousands of menus, interning keeps a single copy of it. Canonical
+ * stacks never leave core, {@link MenuItem#shared(ItemStack)} hands out
+ * copies through {@link MenuItem#getItem()} and only the renderer reads
+ * the canonical stack, so nothing can change an item other menus show.
+ */
+public final class ItemInterner {
+    
+    private static final Map<ItemStack, ItemStack> POOL = new ConcurrentHashMap<>();
+    private static volatile int maxSize = 4096;
+    
+    // counters
+    private static final LongAdder DUPLICATES = new LongAdder();
+    private static final LongAdder REJECTED = new LongAdder();
+    
+    private ItemInterner() {
+    }
+    
+    // canonical stack equal to the given one, the caller must never change it
+    static ItemStack intern(ItemStack item) {
+        ItemStack canonical = POOL.get(item);
+        if (canonical != null) {
+            if (canonical != item) {
+                DUPLICATES.increment();
+            }
+            return canonical;
+        }
+        
+        // keep a private copy so the caller's stack can't change the pooled one
+        ItemStack copy = item.clone();
+        if (POOL.size() >= maxSize) {
+            // full, the item is still frozen but not shared
+            REJECTED.increment();
+            return copy;
+        }
+        
+        canonical = POOL.putIfAbsent(copy, copy);
+        if (canonical != null) {
+            DUPLICATES.increment();
+            return canonical;
+        }
+        return copy;
+    }
+    
+    // max number of distinct items kept
+    public static void setMaxSize(int maxSize) {
+        ItemInterner.maxSize = maxSize;
+    }
+    
+    // forget every pooled item, menu items keep the stacks they already hold
+    public static void clear() {
+        POOL.clear();
+    }
+    
+    // getters
+    public static int size() {
+        return POOL.size();
+    }
+    
+    public static int getMaxSize() {
+        return maxSize;
+    }
+    
+    // copies that were replaced by an existing canonical stack
+    public static long getDuplicatesRemoved() {
+        return DUPLICATES.sum();
+    }
+    
+    // items that were not pooled because the pool was full
+    public static long getRejected() {
+        return REJECTED.sum();
+    }
+}
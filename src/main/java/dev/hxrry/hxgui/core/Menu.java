@@ -4,30 +4,57 @@ import dev.hxrry.hxgui.HxGUI;
 import net.kyori.adventure.text.Component;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
+import org.bukkit.event.inventory.ClickType;
 import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.event.inventory.InventoryType;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.InventoryHolder;
 import org.bukkit.inventory.ItemStack;
 
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.logging.Level;
 
 public abstract class Menu implements InventoryHolder {
     
     protected final Component title;
     protected final int rows;
     protected final InventoryType type;
-    protected final Map<Integer, MenuItem> items = new HashMap<>();
-    protected final Map<UUID, Inventory> inventories = new HashMap<>();
+    protected final SlotStorage items;
+    protected final Map<UUID, Inventory> inventories = new ConcurrentHashMap<>();
+    
+    // slots changed since the last repaint
+    protected final BitSet dirtySlots = new BitSet();
+    protected final SlotRenderer renderer = new SlotRenderer();
+    protected final IntFunction<ItemStack> itemSource = this::displayItem;
+    private int batchDepth = 0;
+    
+    // changes handed over from other threads, drained by the render flush
+    private final Queue<Runnable> pendingMutations = new ConcurrentLinkedQueue<>();
+    final AtomicBoolean renderQueued = new AtomicBoolean(false);
+    
+    // viewer slots with an async click in flight
+    private final Set<PendingClick> pendingClicks = ConcurrentHashMap.newKeySet();
+    
+    // viewers being shown this menu's inventory again, their close event is not a close
+    private final Set<UUID> reopening = ConcurrentHashMap.newKeySet();
     
     // constructor for chest inventories
     public Menu(Component title, int rows) {
         this.title = title;
         this.rows = rows;
         this.type = null;
+        this.items = new SlotStorage(getSize());
     }
     
     // constructor for other inventory types
@@ -35,6 +62,7 @@ public abstract class Menu implements InventoryHolder {
         this.title = title;
         this.rows = 0;
         this.type = type;
+        this.items = new SlotStorage(getSize());
     }
     
     // legacy string title support
@@ -44,11 +72,24 @@ public abstract class Menu implements InventoryHolder {
     
     // create the inventory for a player
     protected Inventory createInventory() {
+        return createInventory(this);
+    }
+    
+    protected Inventory createInventory(InventoryHolder holder) {
         if (type != null) {
-            return Bukkit.createInventory(this, type, title);
+            return Bukkit.createInventory(holder, type, title);
         } else {
-            return Bukkit.createInventory(this, rows * 9, title);
+            return Bukkit.createInventory(holder, rows * 9, title);
+        }
+    }
+    
+    // menu behind an inventory, null when it is not a menu or waits in a pool
+    public static Menu of(Inventory inv) {
+        InventoryHolder holder = inv.getHolder(false);
+        if (holder instanceof Menu menu) {
+            return menu;
         }
+        return holder instanceof PooledHolder pooled ? pooled.menu : null;
     }
     
     // get inventory for specific player
@@ -64,13 +105,27 @@ public abstract class Menu implements InventoryHolder {
         return inventories.values().iterator().next();
     }
     
-    // set an item in the menu
+    /**
+     * Set an item in the menu.
+     *
+     * The item's stack is shown as it is and treated as read-only. Repaints
+     * only write slots whose stack changed, so a stack edited in place after
+     * it was set is not picked up. Set a new stack instead, or force a full
+     * repaint with {@link SharedMenu#refresh()} or
+     * {@link PersonalMenu#updateFor(Player)}.
+     */
     public void setItem(int slot, MenuItem item) {
-        items.put(slot, item);
-        // update all open inventories
-        updateAll();
+        // off the main thread the change is queued and applied on the next flush
+        if (!isOwningThread()) {
+            enqueue(() -> setItem(slot, item));
+            return;
+        }
+        items.set(slot, item);
+        // open inventories get repainted at the end of the tick
+        markDirty(slot);
     }
     
+    // the stack is read-only once set, see setItem(int, MenuItem)
     public void setItem(int slot, ItemStack item) {
         setItem(slot, new MenuItem(item, null));
     }
@@ -81,8 +136,69 @@ public abstract class Menu implements InventoryHolder {
     
     // remove an item
     public void removeItem(int slot) {
+        if (!isOwningThread()) {
+            enqueue(() -> removeItem(slot));
+            return;
+        }
         items.remove(slot);
-        updateAll();
+        markDirty(slot);
+    }
+    
+    // run several changes and repaint once when they are done
+    public void batch(Runnable changes) {
+        // off the main thread the whole batch is queued and runs in one go on the next flush
+        if (!isOwningThread()) {
+            enqueue(() -> batch(changes));
+            return;
+        }
+        batchDepth++;
+        try {
+            changes.run();
+        } finally {
+            if (--batchDepth == 0) {
+                updateAll();
+            }
+        }
+    }
+    
+    // queue a change from any thread, it runs on the main thread at the end of the tick
+    public void enqueue(Runnable mutation) {
+        pendingMutations.add(mutation);
+        if (HxGUI.isInitialized()) {
+            HxGUI.getInstance().getMenuManager().getRenderScheduler().schedule(this);
+        }
+    }
+    
+    // number of queued changes waiting for the main thread
+    public int getPendingMutationCount() {
+        return pendingMutations.size();
+    }
+    
+    // apply queued changes and repaint, called by the render scheduler
+    void flush() {
+        batch(() -> {
+            Runnable mutation;
+            while ((mutation = pendingMutations.poll()) != null) {
+                mutation.run();
+            }
+        });
+    }
+    
+    // check if menu state can be touched from the current thread
+    public boolean isOwningThread() {
+        // before init there is no server to hand work over to
+        MenuScheduler scheduler = scheduler();
+        return scheduler == null || scheduler.isGlobalThread();
+    }
+    
+    // scheduler of the running library, null before init
+    protected MenuScheduler scheduler() {
+        return HxGUI.isInitialized() ? HxGUI.getInstance().getMenuManager().getScheduler() : null;
+    }
+    
+    // check if a batch is in progress
+    public boolean isBatching() {
+        return batchDepth > 0;
     }
     
     // get item at slot
@@ -97,23 +213,64 @@ public abstract class Menu implements InventoryHolder {
             throw new IllegalStateException("HxGUI library not initialized! Call HxGUI.init(plugin) in your onEnable()");
         }
         
-        Inventory inv = getInventory(player);
-        
-        // populate inventory with items
-        for (Map.Entry<Integer, MenuItem> entry : items.entrySet()) {
-            inv.setItem(entry.getKey(), entry.getValue().getItem());
+        // menu state is read on the global thread, the inventory is opened on the viewer's
+        MenuScheduler scheduler = scheduler();
+        if (!scheduler.isGlobalThread()) {
+            scheduler.runGlobal(() -> open(player));
+            return;
         }
         
+        UUID viewer = player.getUniqueId();
+        Inventory inv = getInventory(player);
+        
         // register with manager
         HxGUI.getInstance().getMenuManager().registerMenu(player, this);
         
-        // open the inventory
-        player.openInventory(inv);
+        if (!scheduler.isRegionized()) {
+            // bring the inventory up to date, only touching changed slots
+            updateInventoryFor(viewer, inv);
+            show(player, inv);
+            return;
+        }
+        
+        // snapshot now so the viewer's thread never reads live menu state
+        ItemStack[] snapshot = snapshot(sourceFor(viewer), null);
+        scheduler.runForViewer(player, () -> {
+            renderOpen(inv, slot -> snapshot[slot]);
+            show(player, inv);
+        });
+    }
+    
+    // open the inventory, on the viewer's thread
+    private void show(Player player, Inventory inv) {
+        // reopening fires a close for the same inventory, which must not release it
+        UUID viewer = player.getUniqueId();
+        boolean again = player.getOpenInventory().getTopInventory() == inv;
+        if (again) {
+            reopening.add(viewer);
+        }
+        try {
+            player.openInventory(inv);
+        } finally {
+            if (again) {
+                reopening.remove(viewer);
+            }
+        }
+    }
+    
+    // check if a close event only comes from the player being shown this menu again
+    public boolean isReopening(Player player) {
+        return reopening.contains(player.getUniqueId());
     }
     
     
     // close for player
     public void close(Player player) {
+        MenuScheduler scheduler = scheduler();
+        if (scheduler != null && !scheduler.isViewerThread(player)) {
+            scheduler.runForViewer(player, () -> close(player));
+            return;
+        }
         player.closeInventory();
         onClose(player);
     }
@@ -129,20 +286,126 @@ public abstract class Menu implements InventoryHolder {
         }
     }
     
-    // update all open inventories
+    // push dirty slots to all open inventories
     public void updateAll() {
+        if (deferRepaint()) {
+            return;
+        }
+        if (dirtySlots.isEmpty()) {
+            return;
+        }
         for (Map.Entry<UUID, Inventory> entry : inventories.entrySet()) {
-            updateInventory(entry.getValue());
+            renderFor(entry.getKey(), entry.getValue(), itemSource, dirtySlots);
         }
+        dirtySlots.clear();
     }
     
-    // update specific inventory
+    // write slots to one viewer's inventory on the thread that owns the viewer
+    protected void renderFor(UUID viewer, Inventory inv, IntFunction<ItemStack> source, BitSet slots) {
+        MenuScheduler scheduler = scheduler();
+        if (scheduler == null || !scheduler.isRegionized()) {
+            renderer.render(inv, source, slots);
+            return;
+        }
+        
+        Player player = Bukkit.getPlayer(viewer);
+        if (player == null || scheduler.isViewerThread(player)) {
+            renderer.render(inv, source, slots);
+            return;
+        }
+        
+        // snapshot now so the viewer's thread never reads live menu state
+        BitSet changed = (BitSet) slots.clone();
+        ItemStack[] snapshot = snapshot(source, changed);
+        scheduler.runForViewer(player, () -> renderer.render(inv, slot -> snapshot[slot], changed));
+    }
+    
+    // copy what a source shows, every slot when slots is null
+    private ItemStack[] snapshot(IntFunction<ItemStack> source, BitSet slots) {
+        ItemStack[] snapshot = new ItemStack[getSize()];
+        if (slots == null) {
+            for (int slot = 0; slot < snapshot.length; slot++) {
+                snapshot[slot] = source.apply(slot);
+            }
+            return snapshot;
+        }
+        for (int slot = slots.nextSetBit(0); slot >= 0 && slot < snapshot.length; slot = slots.nextSetBit(slot + 1)) {
+            snapshot[slot] = source.apply(slot);
+        }
+        return snapshot;
+    }
+    
+    // paint a snapshot into an inventory about to be opened, on the viewer's thread
+    protected void renderOpen(Inventory inv, IntFunction<ItemStack> snapshot) {
+        renderer.renderAll(inv, snapshot);
+    }
+    
+    // diff a whole inventory against the current items
     protected void updateInventory(Inventory inv) {
-        // clear then repopulate
-        inv.clear();
-        for (Map.Entry<Integer, MenuItem> entry : items.entrySet()) {
-            inv.setItem(entry.getKey(), entry.getValue().getItem());
+        renderer.renderAll(inv, itemSource);
+    }
+    
+    // diff a whole inventory against what one viewer should see
+    protected void updateInventoryFor(UUID viewer, Inventory inv) {
+        updateInventory(inv);
+    }
+    
+    // what one viewer should see, read on the global thread
+    protected IntFunction<ItemStack> sourceFor(UUID viewer) {
+        return itemSource;
+    }
+    
+    // item a viewer sees in a slot
+    protected MenuItem itemFor(UUID viewer, int slot) {
+        return items.get(slot);
+    }
+    
+    // put an item where a viewer's click landed
+    protected void placeItem(UUID viewer, int slot, MenuItem item) {
+        setItem(slot, item);
+    }
+    
+    // put back what a viewer saw before a click replaced it, shared when it was the menu's own item
+    protected void restoreItem(UUID viewer, int slot, MenuItem original, boolean shared) {
+        setItem(slot, original);
+    }
+    
+    // off the owning thread, leave the repaint to the next flush, which runs on it
+    protected boolean deferRepaint() {
+        if (isOwningThread()) {
+            return false;
         }
+        HxGUI.getInstance().getMenuManager().getRenderScheduler().schedule(this);
+        return true;
+    }
+    
+    // record a changed slot and ask for a repaint
+    protected void markDirty(int slot) {
+        // nobody is looking, the next open diffs every slot anyway
+        if (inventories.isEmpty()) {
+            return;
+        }
+        dirtySlots.set(slot);
+        requestRender();
+    }
+    
+    // queue this menu for the end of tick flush
+    protected void requestRender() {
+        if (batchDepth > 0 || !HxGUI.isInitialized()) {
+            return;
+        }
+        HxGUI.getInstance().getMenuManager().getRenderScheduler().schedule(this);
+    }
+    
+    // item that should be shown in a slot
+    protected ItemStack displayItem(int slot) {
+        MenuItem item = items.get(slot);
+        return item != null ? item.displayStack() : null;
+    }
+    
+    // get the slots changed since the last repaint
+    public BitSet getDirtySlots() {
+        return (BitSet) dirtySlots.clone();
     }
     
     // handle click
@@ -157,15 +420,76 @@ public abstract class Menu implements InventoryHolder {
             return;
         }
         
-        MenuItem item = items.get(slot);
-        if (item != null && item.getClickHandler() != null) {
+        UUID viewer = event.getWhoClicked().getUniqueId();
+        
+        // resolve what this viewer sees once, the handler is then an array read on the item
+        MenuItem item = itemFor(viewer, slot);
+        if (item == null) {
+            return;
+        }
+        
+        Consumer<InventoryClickEvent> handler = item.getClickHandler(event.getClick());
+        if (handler != null) {
             // run the click handler
-            item.getClickHandler().accept(event);
+            handler.accept(event);
+            return;
+        }
+        
+        if (item.isAsync() && event.getWhoClicked() instanceof Player player) {
+            runAsyncClick(player, slot, event.getClick(), item);
+        }
+    }
+    
+    // run an async handler with a loading item in the slot until it finishes
+    protected void runAsyncClick(Player player, int slot, ClickType click, MenuItem item) {
+        // one request per slot at a time, repeated clicks are ignored
+        UUID viewer = player.getUniqueId();
+        PendingClick pending = new PendingClick(viewer, slot);
+        if (!pendingClicks.add(pending)) {
+            return;
         }
+        
+        MenuManager manager = HxGUI.getInstance().getMenuManager();
+        ItemStack loading = item.getLoadingItem() != null ? item.getLoadingItem() : manager.getLoadingItem();
+        MenuItem placeholder = new MenuItem(loading);
+        boolean shared = items.get(slot) == item;
+        placeItem(viewer, slot, placeholder);
+        
+        AsyncClickHandler.Context context = new AsyncClickHandler.Context(player, this, slot, click);
+        CompletableFuture
+            .supplyAsync(() -> item.getAsyncHandler().handle(context), manager.getAsyncExecutor())
+            .thenCompose(future -> future)
+            .whenComplete((result, error) -> {
+                if (error != null) {
+                    HxGUI.getInstance().getPlugin().getLogger()
+                        .log(Level.WARNING, "async click handler failed in slot " + slot, error);
+                }
+                
+                // back on the main thread, only replace our own placeholder
+                enqueue(() -> {
+                    pendingClicks.remove(pending);
+                    if (itemFor(viewer, slot) != placeholder) {
+                        return;
+                    }
+                    if (result != null) {
+                        placeItem(viewer, slot, result);
+                    } else {
+                        restoreItem(viewer, slot, item, shared);
+                    }
+                });
+            });
+    }
+    
+    // check if an async click is running for a player's slot
+    public boolean isPending(Player player, int slot) {
+        return pendingClicks.contains(new PendingClick(player.getUniqueId(), slot));
     }
     
     public void onClose(Player player) {
-        inventories.remove(player.getUniqueId());
+        Inventory inv = inventories.remove(player.getUniqueId());
+        if (inv != null) {
+            releaseInventory(inv);
+        }
         
         // Only unregister if initialized
         if (HxGUI.isInitialized()) {
@@ -186,7 +510,29 @@ public abstract class Menu implements InventoryHolder {
         return type != null ? type.getDefaultSize() : rows * 9;
     }
     
+    // read-only view of the items, nothing is copied
     public Map<Integer, MenuItem> getItems() {
-        return new HashMap<>(items);
+        return items.asMap();
+    }
+    
+    // visit every occupied slot without boxing
+    public void forEachItem(SlotStorage.SlotConsumer consumer) {
+        items.forEach(consumer);
+    }
+    
+    // number of occupied slots
+    public int getItemCount() {
+        return items.count();
+    }
+    
+    // an inventory lost its viewer
+    protected void releaseInventory(Inventory inv) {
+        if (!inventories.containsValue(inv)) {
+            renderer.forget(inv);
+        }
+    }
+    
+    // key for an async click in flight
+    private record PendingClick(UUID viewer, int slot) {
     }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package dev.hxrry.hxgui.core;
 
+import org.bukkit.event.inventory.ClickType;
 import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.inventory.ItemStack;
 
@@ -7,13 +8,22 @@ import java.util.function.Consumer;
 
 public class MenuItem {
     
+    // size of the per item handler table, one entry per click type ordinal
+    public static final int CLICK_TYPE_COUNT = ClickType.values().length;
+    
     private final ItemStack item;
     private final Consumer<InventoryClickEvent> clickHandler;
+    // per click type handlers indexed by ordinal, null when none are set
+    private final Consumer<InventoryClickEvent>[] typeHandlers;
+    // async handler and the item shown while it runs
+    private final AsyncClickHandler asyncHandler;
+    private final ItemStack loadingItem;
+    // the item is an interned stack other menus share, only copies are handed out
+    private final boolean shared;
     
     // basic constructor
     public MenuItem(ItemStack item, Consumer<InventoryClickEvent> clickHandler) {
-        this.item = item;
-        this.clickHandler = clickHandler;
+        this(item, clickHandler, null);
     }
     
     // constructor for non-clickable items
@@ -21,36 +31,138 @@ public class MenuItem {
         this(item, null);
     }
     
-    // get the item
+    private MenuItem(ItemStack item, Consumer<InventoryClickEvent> clickHandler, Consumer<InventoryClickEvent>[] typeHandlers) {
+        this(item, clickHandler, typeHandlers, null, null);
+    }
+    
+    private MenuItem(ItemStack item, Consumer<InventoryClickEvent> clickHandler, Consumer<InventoryClickEvent>[] typeHandlers,
+                     AsyncClickHandler asyncHandler, ItemStack loadingItem) {
+        this(item, clickHandler, typeHandlers, asyncHandler, loadingItem, false);
+    }
+    
+    private MenuItem(ItemStack item, Consumer<InventoryClickEvent> clickHandler, Consumer<InventoryClickEvent>[] typeHandlers,
+                     AsyncClickHandler asyncHandler, ItemStack loadingItem, boolean shared) {
+        this.item = item;
+        this.clickHandler = clickHandler;
+        this.typeHandlers = typeHandlers;
+        this.asyncHandler = asyncHandler;
+        this.loadingItem = loadingItem;
+        this.shared = shared;
+    }
+    
+    // get the item, a copy for shared items
     public ItemStack getItem() {
+        return shared && item != null ? item.clone() : item;
+    }
+    
+    // the stack the renderer shows, never handed outside core
+    ItemStack displayStack() {
         return item;
     }
     
+    // check if the item is an interned stack
+    public boolean isShared() {
+        return shared;
+    }
+    
     // get the click handler
     public Consumer<InventoryClickEvent> getClickHandler() {
         return clickHandler;
     }
     
+    // get the handler for a click type, falls back to the default handler
+    public Consumer<InventoryClickEvent> getClickHandler(ClickType type) {
+        if (typeHandlers != null) {
+            Consumer<InventoryClickEvent> handler = typeHandlers[type.ordinal()];
+            if (handler != null) {
+                return handler;
+            }
+        }
+        return clickHandler;
+    }
+    
+    // get the async handler, null for plain items
+    public AsyncClickHandler getAsyncHandler() {
+        return asyncHandler;
+    }
+    
+    // get the item shown while the async handler runs, null for the default
+    public ItemStack getLoadingItem() {
+        return loadingItem;
+    }
+    
+    // check if clicks run off the main thread
+    public boolean isAsync() {
+        return asyncHandler != null;
+    }
+    
     // check if clickable
     public boolean isClickable() {
-        return clickHandler != null;
+        return clickHandler != null || typeHandlers != null || asyncHandler != null;
     }
     
     // handle click if handler exists
     public void handleClick(InventoryClickEvent event) {
-        if (clickHandler != null) {
-            clickHandler.accept(event);
+        Consumer<InventoryClickEvent> handler = getClickHandler(event.getClick());
+        if (handler != null) {
+            handler.accept(event);
+        }
+    }
+    
+    // create a copy with a handler for specific click types
+    public MenuItem on(ClickType type, Consumer<InventoryClickEvent> handler) {
+        return on(new ClickType[] {type}, handler);
+    }
+    
+    public MenuItem onLeft(Consumer<InventoryClickEvent> handler) {
+        return on(ClickType.LEFT, handler);
+    }
+    
+    public MenuItem onRight(Consumer<InventoryClickEvent> handler) {
+        return on(ClickType.RIGHT, handler);
+    }
+    
+    public MenuItem onShift(Consumer<InventoryClickEvent> handler) {
+        return on(new ClickType[] {ClickType.SHIFT_LEFT, ClickType.SHIFT_RIGHT}, handler);
+    }
+    
+    public MenuItem onNumberKey(Consumer<InventoryClickEvent> handler) {
+        return on(ClickType.NUMBER_KEY, handler);
+    }
+    
+    public MenuItem onDrop(Consumer<InventoryClickEvent> handler) {
+        return on(new ClickType[] {ClickType.DROP, ClickType.CONTROL_DROP}, handler);
+    }
+    
+    @SuppressWarnings("unchecked")
+    private MenuItem on(ClickType[] types, Consumer<InventoryClickEvent> handler) {
+        Consumer<InventoryClickEvent>[] handlers = typeHandlers != null ?
+            typeHandlers.clone() :
+            (Consumer<InventoryClickEvent>[]) new Consumer[CLICK_TYPE_COUNT];
+        for (ClickType type : types) {
+            handlers[type.ordinal()] = handler;
         }
+        return new MenuItem(item, clickHandler, handlers, asyncHandler, loadingItem, shared);
+    }
+    
+    // create a copy with a custom loading item for async clicks
+    public MenuItem withLoadingItem(ItemStack loading) {
+        return new MenuItem(item, clickHandler, typeHandlers, asyncHandler, loading, shared);
     }
     
     // create a copy with different handler
     public MenuItem withHandler(Consumer<InventoryClickEvent> newHandler) {
-        return new MenuItem(item.clone(), newHandler);
+        // a shared stack is never changed, so it needs no copy
+        ItemStack copy = shared || item == null ? item : item.clone();
+        return new MenuItem(copy, newHandler, typeHandlers, asyncHandler, loadingItem, shared);
     }
     
-    // create a copy with different item
+    // create a copy with different item, a shared item stays shared
     public MenuItem withItem(ItemStack newItem) {
-        return new MenuItem(newItem, clickHandler);
+        if (shared && newItem != null) {
+            return new MenuItem(ItemInterner.intern(newItem), clickHandler, typeHandlers, asyncHandler, loadingItem, true);
+        }
+        return new MenuItem(newItem, clickHandler, typeHandlers, asyncHandler, loadingItem);
     }
     
     // static factory methods for common items
@@ -58,6 +170,27 @@ public class MenuItem {
         return new MenuItem(null, null);
     }
     
+    // item whose click runs on a virtual thread
+    public static MenuItem async(ItemStack item, AsyncClickHandler handler) {
+        return new MenuItem(item, null, null, handler, null);
+    }
+    
+    public static MenuItem async(ItemStack item, ItemStack loading, AsyncClickHandler handler) {
+        return new MenuItem(item, null, null, handler, loading);
+    }
+    
+    // item backed by one canonical stack shared with every equal item
+    public static MenuItem shared(ItemStack item) {
+        return shared(item, null);
+    }
+    
+    public static MenuItem shared(ItemStack item, Consumer<InventoryClickEvent> clickHandler) {
+        if (item == null) {
+            return new MenuItem(null, clickHandler);
+        }
+        return new MenuItem(ItemInterner.intern(item), clickHandler, null, null, null, true);
+    }
+    
     public static MenuItem filler(ItemStack item) {
         // filler items don't do anything when clicked
         return new MenuItem(item, event -> {
@@ -72,4 +205,4 @@ public class MenuItem {
             event.getWhoClicked().closeInventory();
         });
     }
-}
\ No newline at end of file
+}
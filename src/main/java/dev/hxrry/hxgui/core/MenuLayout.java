@@ -0,0 +1,91 @@
+package dev.hxrry.hxgui.core;
+
+import net.kyori.adventure.text.Component;
+import org.bukkit.entity.Player;
+import org.bukkit.event.inventory.InventoryType;
+
+import java.util.Map;
+
+/**
+ * Immutable, compiled menu definition. Slots (pattern items already
+ * resolved) and their click dispatch are flattened once, every menu made
+ * from the layout starts as a plain array copy of them.
+ *
+ * A layout is never changed after it is built, so one instance can be
+ * shared across threads and reused for every open.
+ */
+public final class MenuLayout {
+    
+    private final Component title;
+    private final int rows;
+    private final InventoryType type;
+    private final boolean shared;
+    private final SlotStorage slots;
+    
+    public MenuLayout(Component title, int rows, InventoryType type, boolean shared, Map<Integer, MenuItem> items) {
+        this.title = title;
+        this.rows = rows;
+        this.type = type;
+        this.shared = shared;
+        this.slots = new SlotStorage(type != null ? type.getDefaultSize() : rows * 9);
+        
+        for (Map.Entry<Integer, MenuItem> entry : items.entrySet()) {
+            slots.set(entry.getKey(), entry.getValue());
+        }
+    }
+    
+    // create a fresh menu from the layout
+    public Menu create() {
+        Menu menu;
+        if (type != null) {
+            menu = shared ?
+                new SharedMenu(title, type) :
+                new PersonalMenu(title, type);
+        } else {
+            menu = shared ?
+                new SharedMenu(title, rows) :
+                new PersonalMenu(title, rows);
+        }
+        
+        // no viewers yet, so no repaint is needed
+        menu.items.copyFrom(slots);
+        return menu;
+    }
+    
+    // create a menu and open it
+    public Menu open(Player player) {
+        Menu menu = create();
+        menu.open(player);
+        return menu;
+    }
+    
+    // getters
+    public Component getTitle() {
+        return title;
+    }
+    
+    public int getRows() {
+        return rows;
+    }
+    
+    public InventoryType getType() {
+        return type;
+    }
+    
+    public boolean isShared() {
+        return shared;
+    }
+    
+    public int getSize() {
+        return slots.size();
+    }
+    
+    public MenuItem getItem(int slot) {
+        return slots.get(slot);
+    }
+    
+    // read-only view of the compiled slots
+    public Map<Integer, MenuItem> getItems() {
+        return slots.asMap();
+    }
+}
@@ -1,5 +1,8 @@
 package dev.hxrry.hxgui.core;
 
+import com.destroystokyo.paper.event.server.ServerTickEndEvent;
+import dev.hxrry.hxgui.builders.ItemBuilder;
+import org.bukkit.Material;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
@@ -9,23 +12,63 @@ import org.bukkit.event.inventory.InventoryCloseEvent;
 import org.bukkit.event.inventory.InventoryDragEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.event.server.PluginDisableEvent;
+import org.bukkit.inventory.ItemStack;
 import org.bukkit.plugin.java.JavaPlugin;
 
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class MenuManager implements Listener {
     
     private final JavaPlugin plugin;
-    private final Map<UUID, Menu> openMenus = new HashMap<>();
+    // bookkeeping only, event routing goes through the inventory holder
+    private final Map<UUID, Menu> openMenus = new ConcurrentHashMap<>();
+    private final RenderScheduler renderScheduler = new RenderScheduler();
+    private final ClickLimiter clickLimiter = new ClickLimiter();
+    private final SessionRegistry sessions = new SessionRegistry();
+    // closed inventories shared by menus of the same shape
+    private final InventoryPools inventoryPools = new InventoryPools();
+    // async click handlers run here, one virtual thread per click
+    private final ExecutorService asyncExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private ItemStack loadingItem;
+    private MenuScheduler scheduler;
     
     public MenuManager(JavaPlugin plugin) {
         this.plugin = plugin;
+        this.scheduler = MenuScheduler.create(plugin);
+        startTickers();
         // register events with the host plugin
         plugin.getServer().getPluginManager().registerEvents(this, plugin);
     }
     
+    private void startTickers() {
+        // regionized servers have no single tick end, flush on the global region instead
+        if (scheduler.isRegionized()) {
+            scheduler.repeatGlobal(renderScheduler::flush, 1L);
+        }
+        // once a minute, drop sessions nobody cleaned up
+        scheduler.repeatGlobal(() -> {
+            sessions.sweep(openMenus::containsKey);
+            inventoryPools.sweep();
+        }, 1200L);
+    }
+    
+    // swap the thread scheduler, mainly for tests with a stub scheduler
+    public void setScheduler(MenuScheduler scheduler) {
+        this.scheduler.shutdown();
+        this.scheduler = scheduler;
+        startTickers();
+    }
+    
+    // get the scheduler deciding which thread menu work runs on
+    public MenuScheduler getScheduler() {
+        return scheduler;
+    }
+    
     // register a menu as open
     public void registerMenu(Player player, Menu menu) {
         openMenus.put(player.getUniqueId(), menu);
@@ -52,29 +95,54 @@ public class MenuManager implements Listener {
         for (UUID uuid : new HashMap<>(openMenus).keySet()) {
             Player player = plugin.getServer().getPlayer(uuid);
             if (player != null) {
-                player.closeInventory();
+                scheduler.runForViewer(player, player::closeInventory);
             }
         }
         openMenus.clear();
+        renderScheduler.clear();
+        sessions.clear();
+    }
+    
+    // close everything and stop scheduled work
+    public void shutdown() {
+        closeAll();
+        scheduler.shutdown();
+        asyncExecutor.shutdown();
+    }
+    
+    // repaint everything that changed during this tick
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onServerTickEnd(ServerTickEndEvent event) {
+        if (!scheduler.isRegionized()) {
+            renderScheduler.flush();
+        }
     }
     
     // handle inventory clicks
     @EventHandler(priority = EventPriority.HIGH)
     public void onInventoryClick(InventoryClickEvent event) {
-        if (!(event.getWhoClicked() instanceof Player player)) {
+        // the holder is the menu or points at it, anything else is not ours
+        Menu menu = Menu.of(event.getInventory());
+        if (menu == null) {
             return;
         }
         
-        Menu menu = openMenus.get(player.getUniqueId());
-        if (menu == null) {
+        if (!(event.getWhoClicked() instanceof Player player)) {
             return;
         }
         
-        // check if click is in the menu inventory
-        if (event.getInventory().getHolder() != menu) {
+        // drop click storms before they reach any handler, clicks in the player's own inventory are free
+        if (event.getClickedInventory() == event.getInventory()
+            && !clickLimiter.tryClick(player.getUniqueId(), event.getRawSlot())) {
+            event.setCancelled(true);
             return;
         }
         
+        MenuSession session = sessions.find(player.getUniqueId());
+        if (session != null) {
+            session.touch();
+        }
+        
         // let the menu handle it
         menu.handleClick(event);
     }
@@ -82,17 +150,8 @@ public class MenuManager implements Listener {
     // prevent dragging items
     @EventHandler(priority = EventPriority.HIGH)
     public void onInventoryDrag(InventoryDragEvent event) {
-        if (!(event.getWhoClicked() instanceof Player player)) {
-            return;
-        }
-        
-        Menu menu = openMenus.get(player.getUniqueId());
-        if (menu == null) {
-            return;
-        }
-        
-        // check if drag is in the menu
-        if (event.getInventory().getHolder() != menu) {
+        // check if drag is in a menu
+        if (Menu.of(event.getInventory()) == null) {
             return;
         }
         
@@ -103,34 +162,51 @@ public class MenuManager implements Listener {
     // handle inventory close
     @EventHandler(priority = EventPriority.MONITOR)
     public void onInventoryClose(InventoryCloseEvent event) {
-        if (!(event.getPlayer() instanceof Player player)) {
+        // check if closing a menu inventory
+        Menu menu = Menu.of(event.getInventory());
+        if (menu == null) {
             return;
         }
         
-        Menu menu = openMenus.get(player.getUniqueId());
-        if (menu == null) {
+        if (!(event.getPlayer() instanceof Player player)) {
             return;
         }
         
-        // check if closing the menu inventory
-        if (event.getInventory().getHolder() != menu) {
+        // the menu is being opened again, the player never left it
+        if (menu.isReopening(player)) {
             return;
         }
         
         // clean up
         menu.onClose(player);
+        
+        // session state follows the global thread like the rest of the menu state,
+        // capture the session now so a late task can't end one opened after this close
+        UUID uuid = player.getUniqueId();
+        MenuSession session = sessions.find(uuid);
+        if (session != null) {
+            scheduler.runGlobal(() -> sessions.endMenu(uuid, menu, session));
+        }
     }
     
     // handle player quit
     @EventHandler
     public void onPlayerQuit(PlayerQuitEvent event) {
         Player player = event.getPlayer();
+        clickLimiter.reset(player.getUniqueId());
         Menu menu = openMenus.get(player.getUniqueId());
         
         if (menu != null) {
             // clean up without closing inventory
             menu.onClose(player);
         }
+        
+        // a rejoin before the task runs gets a fresh session, leave that one alone
+        UUID uuid = player.getUniqueId();
+        MenuSession session = sessions.find(uuid);
+        if (session != null) {
+            scheduler.runGlobal(() -> sessions.end(uuid, session));
+        }
     }
     
     // handle plugin disable
@@ -139,6 +215,7 @@ public class MenuManager implements Listener {
         // close all menus if the host plugin disables
         if (event.getPlugin().equals(plugin)) {
             closeAll();
+            inventoryPools.clear();
         }
     }
     
@@ -147,6 +224,51 @@ public class MenuManager implements Listener {
         return openMenus.size();
     }
     
+    // get the executor async click handlers run on
+    public ExecutorService getAsyncExecutor() {
+        return asyncExecutor;
+    }
+    
+    // get the default item shown while an async click runs
+    public ItemStack getLoadingItem() {
+        if (loadingItem == null) {
+            loadingItem = new ItemBuilder(Material.GRAY_DYE)
+                .name("<gray>Loading...")
+                .build();
+        }
+        return loadingItem;
+    }
+    
+    // set the default item shown while an async click runs
+    public void setLoadingItem(ItemStack loadingItem) {
+        this.loadingItem = loadingItem;
+    }
+    
+    // get the click limiter, configure it or read its counters
+    public ClickLimiter getClickLimiter() {
+        return clickLimiter;
+    }
+    
+    // get a player's session, components attach per player state here
+    public MenuSession getSession(Player player) {
+        return sessions.get(player.getUniqueId());
+    }
+    
+    // get all sessions, configure the idle timeout or read the counters
+    public SessionRegistry getSessions() {
+        return sessions;
+    }
+    
+    // get the pools of closed inventories, for tuning and hit rate
+    public InventoryPools getInventoryPools() {
+        return inventoryPools;
+    }
+    
+    // get the scheduler that coalesces repaints per tick
+    public RenderScheduler getRenderScheduler() {
+        return renderScheduler;
+    }
+    
     // get all open menus
     public Map<UUID, Menu> getOpenMenus() {
         return new HashMap<>(openMenus);
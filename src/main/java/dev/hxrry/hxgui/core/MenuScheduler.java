@@ -0,0 +1,52 @@
+package dev.hxrry.hxgui.core;
+
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+
+/**
+ * Decides which thread menu work runs on. Paper has a single main thread,
+ * Folia splits the world into regions and every player's inventory has to
+ * be touched from the region that owns the player.
+ *
+ * Shared menu state (slot storage, dirty slots, queued changes) always lives
+ * on the global thread, inventory writes for a viewer go through
+ * {@link #runForViewer(Player, Runnable)}.
+ */
+public interface MenuScheduler {
+    
+    // check if the current thread owns shared menu state
+    boolean isGlobalThread();
+    
+    // check if the current thread may touch this player's inventory
+    boolean isViewerThread(Player player);
+    
+    // run on the global thread, right away if already on it
+    void runGlobal(Runnable task);
+    
+    // run on the thread that owns the player, right away if already on it
+    void runForViewer(Player player, Runnable task);
+    
+    // run a task on the global thread every periodTicks
+    void repeatGlobal(Runnable task, long periodTicks);
+    
+    // true when the server ticks regions independently
+    boolean isRegionized();
+    
+    // cancel repeating tasks
+    void shutdown();
+    
+    // pick the scheduler matching the running server
+    static MenuScheduler create(Plugin plugin) {
+        return isFolia() ? new FoliaMenuScheduler(plugin) : new BukkitMenuScheduler(plugin);
+    }
+    
+    // check if we are running on folia
+    static boolean isFolia() {
+        try {
+            Class.forName("io.papermc.paper.threadedregions.RegionizedServer");
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+}
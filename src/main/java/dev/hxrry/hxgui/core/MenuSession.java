@@ -0,0 +1,172 @@
+package dev.hxrry.hxgui.core;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * State a component keeps for one player, owned by the {@link MenuManager}.
+ *
+ * Values stored under a menu key are dropped when the player closes that
+ * menu. Values under a player key live until the player quits. Sessions
+ * that sit idle for too long are swept, so state never outlives the
+ * player who created it.
+ */
+public class MenuSession {
+    
+    private final UUID player;
+    private final Map<Key<?>, Object> values = new ConcurrentHashMap<>();
+    private volatile long lastAccess = System.nanoTime();
+    
+    MenuSession(UUID player) {
+        this.player = player;
+    }
+    
+    // get a value, null if there is none
+    @SuppressWarnings("unchecked")
+    public <T> T get(Key<T> key) {
+        touch();
+        return (T) values.get(key);
+    }
+    
+    // get a value or a default
+    public <T> T getOrDefault(Key<T> key, T defaultValue) {
+        T value = get(key);
+        return value != null ? value : defaultValue;
+    }
+    
+    // get a value, creating it if there is none
+    @SuppressWarnings("unchecked")
+    public <T> T computeIfAbsent(Key<T> key, Supplier<T> factory) {
+        touch();
+        return (T) values.computeIfAbsent(key, k -> factory.get());
+    }
+    
+    // store a value, null removes it
+    public <T> void put(Key<T> key, T value) {
+        if (value == null) {
+            remove(key);
+            return;
+        }
+        touch();
+        values.put(key, value);
+    }
+    
+    // remove a value and run the key's cleanup
+    @SuppressWarnings("unchecked")
+    public <T> T remove(Key<T> key) {
+        T value = (T) values.remove(key);
+        if (value != null) {
+            key.removed(player, value);
+        }
+        return value;
+    }
+    
+    // mark the session as used
+    public void touch() {
+        lastAccess = System.nanoTime();
+    }
+    
+    // drop everything tied to a menu
+    void endMenu(Menu menu) {
+        Iterator<Map.Entry<Key<?>, Object>> it = values.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Key<?>, Object> entry = it.next();
+            if (entry.getKey().menu == menu) {
+                it.remove();
+                removed(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+    
+    // drop everything
+    void end() {
+        Iterator<Map.Entry<Key<?>, Object>> it = values.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Key<?>, Object> entry = it.next();
+            it.remove();
+            removed(entry.getKey(), entry.getValue());
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    private <T> void removed(Key<T> key, Object value) {
+        key.removed(player, (T) value);
+    }
+    
+    // getters
+    public UUID getPlayer() {
+        return player;
+    }
+    
+    public long getIdleNanos() {
+        return System.nanoTime() - lastAccess;
+    }
+    
+    public int size() {
+        return values.size();
+    }
+    
+    public boolean isEmpty() {
+        return values.isEmpty();
+    }
+    
+    /**
+     * Identity of one piece of session state. Keys are compared by
+     * identity, so a component creates its own keys once and keeps them.
+     */
+    public static final class Key<T> {
+        
+        private final String name;
+        private final Menu menu;
+        private final BiConsumer<UUID, T> onRemove;
+        
+        private Key(String name, Menu menu, BiConsumer<UUID, T> onRemove) {
+            this.name = name;
+            this.menu = menu;
+            this.onRemove = onRemove;
+        }
+        
+        // state that lives until the player quits
+        public static <T> Key<T> player(String name) {
+            return new Key<>(name, null, null);
+        }
+        
+        // state that lives until the player closes the menu
+        public static <T> Key<T> menu(Menu menu, String name) {
+            return new Key<>(name, menu, null);
+        }
+        
+        // same key with a cleanup that runs when the value is dropped
+        public Key<T> onRemove(BiConsumer<UUID, T> onRemove) {
+            return new Key<>(name, menu, onRemove);
+        }
+        
+        private void removed(UUID player, T value) {
+            if (onRemove != null) {
+                onRemove.accept(player, value);
+            }
+        }
+        
+        // getters
+        public String getName() {
+            return name;
+        }
+        
+        public Menu getMenu() {
+            return menu;
+        }
+        
+        public boolean isMenuScoped() {
+            return menu != null;
+        }
+        
+        @Override
+        public String toString() {
+            return "Key[" + name + "]";
+        }
+    }
+}
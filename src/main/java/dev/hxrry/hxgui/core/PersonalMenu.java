@@ -1,14 +1,23 @@
 package dev.hxrry.hxgui.core;
 
+import dev.hxrry.hxgui.HxGUI;
 import net.kyori.adventure.text.Component;
 import org.bukkit.entity.Player;
 import org.bukkit.event.inventory.InventoryType;
 import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
 
+import java.util.BitSet;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntFunction;
 
 public class PersonalMenu extends Menu {
     
+    // per player overrides on top of the shared items, only for viewers
+    private final Map<UUID, ViewerLayer> layers = new ConcurrentHashMap<>();
+    
     // constructor for chest inventories
     public PersonalMenu(Component title, int rows) {
         super(title, rows);
@@ -32,9 +41,13 @@ public class PersonalMenu extends Menu {
         Inventory inv = inventories.get(uuid);
         
         if (inv == null) {
-            // create a new personal inventory for this player
-            inv = createInventory();
-            updateInventory(inv);
+            // reuse a closed inventory when there is one, it keeps what it shows
+            inv = getInventoryPool().acquire(this::createPooledInventory);
+            PooledHolder holder = (PooledHolder) inv.getHolder(false);
+            holder.menu = this;
+            renderer.adopt(inv, holder.shown);
+            holder.shown = null;
+            updateInventoryFor(uuid, inv);
             inventories.put(uuid, inv);
         }
         
@@ -43,26 +56,183 @@ public class PersonalMenu extends Menu {
     
     @Override
     public void updateAll() {
-        // update each player's personal inventory
-        for (Inventory inv : inventories.values()) {
-            updateInventory(inv);
+        if (deferRepaint()) {
+            return;
+        }
+        for (Map.Entry<UUID, Inventory> entry : inventories.entrySet()) {
+            ViewerLayer layer = layers.get(entry.getKey());
+            if (layer == null) {
+                if (!dirtySlots.isEmpty()) {
+                    renderFor(entry.getKey(), entry.getValue(), itemSource, dirtySlots);
+                }
+                continue;
+            }
+            
+            // shared changes plus this viewer's own
+            BitSet slots = dirtySlots;
+            if (!layer.dirty.isEmpty()) {
+                slots = (BitSet) dirtySlots.clone();
+                slots.or(layer.dirty);
+                layer.dirty.clear();
+            }
+            if (!slots.isEmpty()) {
+                renderFor(entry.getKey(), entry.getValue(), layer.source, slots);
+            }
         }
+        dirtySlots.clear();
+    }
+    
+    @Override
+    protected void updateInventoryFor(UUID viewer, Inventory inv) {
+        renderer.renderAll(inv, sourceFor(viewer));
+    }
+    
+    @Override
+    protected IntFunction<ItemStack> sourceFor(UUID viewer) {
+        ViewerLayer layer = layers.get(viewer);
+        return layer != null ? layer.source : itemSource;
     }
     
-    // update specific player's inventory
+    // clicks read the overlay from the viewer's thread, one get sees one consistent state
+    @Override
+    protected MenuItem itemFor(UUID viewer, int slot) {
+        ViewerLayer layer = layers.get(viewer);
+        MenuItem override = layer != null ? layer.overlay.get(slot) : null;
+        return override != null ? override : items.get(slot);
+    }
+    
+    // a click only ever changes what the clicking player sees
+    @Override
+    protected void placeItem(UUID viewer, int slot, MenuItem item) {
+        setItemFor(viewer, slot, item);
+    }
+    
+    @Override
+    protected void restoreItem(UUID viewer, int slot, MenuItem original, boolean shared) {
+        // dropping the override shows the shared item again, even if it changed meanwhile
+        setItemFor(viewer, slot, shared ? null : original);
+    }
+    
+    // repaint a player's whole inventory, also stacks changed in place
     public void updateFor(Player player) {
         Inventory inv = inventories.get(player.getUniqueId());
         if (inv != null) {
-            updateInventory(inv);
+            renderer.forget(inv);
+            updateInventoryFor(player.getUniqueId(), inv);
         }
     }
     
+    // set an item only this player sees, other viewers keep the shared item
     public void setItemFor(Player player, int slot, MenuItem item) {
-        Inventory inv = inventories.get(player.getUniqueId());
-        if (inv != null) {
-            inv.setItem(slot, item.getItem());
-            setItem(slot, item);  
+        setItemFor(player.getUniqueId(), slot, item);
+    }
+    
+    // set several of a player's slots at once and repaint only their inventory
+    public void setItemsFor(Player player, int[] slots, MenuItem[] items) {
+        if (slots.length != items.length) {
+            throw new IllegalArgumentException("Got " + slots.length + " slots but " + items.length + " items");
+        }
+        if (!isOwningThread()) {
+            enqueue(() -> setItemsFor(player, slots, items));
+            return;
+        }
+        
+        UUID uuid = player.getUniqueId();
+        Inventory inv = inventories.get(uuid);
+        if (inv == null) {
+            return;
+        }
+        
+        // one published overlay state, clicks never see half a page
+        ViewerLayer layer = layers.computeIfAbsent(uuid, key -> new ViewerLayer());
+        layer.overlay.setAll(slots, items);
+        for (int slot : slots) {
+            layer.dirty.set(slot);
+        }
+        
+        // inside a batch the batch end repaints, otherwise flush this viewer right away
+        if (isBatching()) {
+            return;
         }
+        renderFor(uuid, inv, layer.source, layer.dirty);
+        layer.dirty.clear();
+    }
+    
+    // drop a player's override so they see the shared item again
+    public void removeItemFor(Player player, int slot) {
+        setItemFor(player.getUniqueId(), slot, null);
+    }
+    
+    // drop all of a player's overrides
+    public void clearFor(Player player) {
+        UUID uuid = player.getUniqueId();
+        if (!isOwningThread()) {
+            enqueue(() -> clearFor(player));
+            return;
+        }
+        
+        ViewerLayer layer = layers.get(uuid);
+        if (layer == null) {
+            return;
+        }
+        for (int slot = layer.overlay.nextSlot(0); slot >= 0; slot = layer.overlay.nextSlot(slot + 1)) {
+            layer.dirty.set(slot);
+        }
+        layer.overlay.clear();
+        requestRender();
+    }
+    
+    // get the item a player sees in a slot
+    public MenuItem getItemFor(Player player, int slot) {
+        return itemFor(player.getUniqueId(), slot);
+    }
+    
+    private void setItemFor(UUID uuid, int slot, MenuItem item) {
+        if (!isOwningThread()) {
+            enqueue(() -> setItemFor(uuid, slot, item));
+            return;
+        }
+        
+        // only players looking at the menu carry a layer
+        if (!inventories.containsKey(uuid)) {
+            return;
+        }
+        
+        ViewerLayer layer = layers.computeIfAbsent(uuid, key -> new ViewerLayer());
+        layer.overlay.set(slot, item);
+        layer.dirty.set(slot);
+        requestRender();
+    }
+    
+    @Override
+    public void onClose(Player player) {
+        layers.remove(player.getUniqueId());
+        super.onClose(player);
+    }
+    
+    @Override
+    protected void releaseInventory(Inventory inv) {
+        // what the inventory shows goes with it, the next menu diffs against that
+        PooledHolder holder = (PooledHolder) inv.getHolder(false);
+        holder.shown = renderer.detach(inv);
+        holder.menu = null;
+        getInventoryPool().release(inv);
+    }
+    
+    // pooled inventories get a holder that can be pointed at another menu
+    private Inventory createPooledInventory() {
+        PooledHolder holder = new PooledHolder();
+        Inventory inv = createInventory(holder);
+        holder.bind(inv);
+        return inv;
+    }
+    
+    // get the pool shared by menus of this shape, looked up each time since idle pools are dropped
+    public InventoryPool getInventoryPool() {
+        if (!HxGUI.isInitialized()) {
+            return new InventoryPool(0);
+        }
+        return HxGUI.getInstance().getMenuManager().getInventoryPools().poolFor(type, getSize(), title);
     }
     
     // check if specific player has this menu open
@@ -77,13 +247,27 @@ public class PersonalMenu extends Menu {
     
     // create a personalized copy for a player
     public PersonalMenu copy() {
-        PersonalMenu copy = type != null ? 
-            new PersonalMenu(title, type) : 
+        PersonalMenu copy = type != null ?
+            new PersonalMenu(title, type) :
             new PersonalMenu(title, rows);
         
-        // copy all items
-        copy.items.putAll(this.items);
+        // copy the shared items, overrides stay with their players
+        copy.items.copyFrom(this.items);
         
         return copy;
     }
-}
\ No newline at end of file
+    
+    // one viewer's overrides and their pending repaint
+    private class ViewerLayer {
+        final SlotOverlay overlay = new SlotOverlay();
+        final BitSet dirty = new BitSet();
+        // overrides win, everything else comes from the shared items
+        final IntFunction<ItemStack> source = slot -> {
+            if (overlay.has(slot)) {
+                MenuItem item = overlay.get(slot);
+                return item != null ? item.displayStack() : null;
+            }
+            return displayItem(slot);
+        };
+    }
+}
@@ -0,0 +1,28 @@
+package dev.hxrry.hxgui.core;
+
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryHolder;
+import org.bukkit.inventory.ItemStack;
+
+/**
+ * Holder of a pooled inventory. Bukkit binds an inventory to its holder for
+ * good, so pooled inventories get this stand-in, which points at whichever
+ * menu currently uses the inventory. See {@link Menu#of(Inventory)}.
+ */
+final class PooledHolder implements InventoryHolder {
+    
+    // menu showing the inventory, null while it waits in a pool
+    volatile Menu menu;
+    // what the inventory shows while it is pooled, handed to the next menu's renderer
+    volatile ItemStack[] shown;
+    private Inventory inventory;
+    
+    void bind(Inventory inventory) {
+        this.inventory = inventory;
+    }
+    
+    @Override
+    public Inventory getInventory() {
+        return inventory;
+    }
+}
@@ -0,0 +1,68 @@
+package dev.hxrry.hxgui.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects menus that changed during the current tick and repaints each of
+ * them once when the tick ends, however many mutations they received.
+ *
+ * Scheduling is lock-free and safe from any thread, flushing happens on
+ * the main thread and also applies changes queued from async threads.
+ */
+public class RenderScheduler {
+    
+    private final Queue<Menu> pending = new ConcurrentLinkedQueue<>();
+    private final LongAdder flushedMenus = new LongAdder();
+    
+    // queue a menu for the end of tick flush, safe from any thread
+    public void schedule(Menu menu) {
+        // the flag keeps each menu in the queue at most once
+        if (menu.renderQueued.compareAndSet(false, true)) {
+            pending.add(menu);
+        }
+    }
+    
+    // apply queued changes and repaint every queued menu
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        
+        // take what is queued right now, anything scheduled while
+        // flushing waits for the next tick
+        List<Menu> menus = new ArrayList<>();
+        Menu menu;
+        while ((menu = pending.poll()) != null) {
+            menus.add(menu);
+        }
+        
+        for (Menu queued : menus) {
+            // reset first so changes arriving mid flush queue it again
+            queued.renderQueued.set(false);
+            queued.flush();
+        }
+        flushedMenus.add(menus.size());
+    }
+    
+    // drop anything still queued
+    public void clear() {
+        Menu menu;
+        while ((menu = pending.poll()) != null) {
+            menu.renderQueued.set(false);
+        }
+    }
+    
+    // menus waiting for the next flush
+    public int getPendingCount() {
+        return pending.size();
+    }
+    
+    // total menu repaints done by this scheduler
+    public long getFlushedMenus() {
+        return flushedMenus.sum();
+    }
+}
@@ -0,0 +1,110 @@
+package dev.hxrry.hxgui.core;
+
+import org.bukkit.Bukkit;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * Keeps every player's {@link MenuSession}. The menu manager ends menu
+ * state on close and whole sessions on quit, a periodic sweep catches
+ * anything those missed.
+ */
+public class SessionRegistry {
+    
+    private final Map<UUID, MenuSession> sessions = new ConcurrentHashMap<>();
+    private volatile long idleTimeoutNanos = TimeUnit.MINUTES.toNanos(30);
+    
+    // counters
+    private final LongAdder ended = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+    private final LongAdder leaked = new LongAdder();
+    
+    // get a player's session, creating it if needed
+    public MenuSession get(UUID player) {
+        return sessions.computeIfAbsent(player, MenuSession::new);
+    }
+    
+    // get a player's session, null if they have none
+    public MenuSession find(UUID player) {
+        return sessions.get(player);
+    }
+    
+    // how long an unused session survives, 0 keeps sessions until quit
+    public SessionRegistry idleTimeout(long duration, TimeUnit unit) {
+        this.idleTimeoutNanos = unit.toNanos(duration);
+        return this;
+    }
+    
+    // a player closed a menu, only touches the session seen at close time
+    void endMenu(UUID player, Menu menu, MenuSession session) {
+        if (sessions.get(player) == session) {
+            session.endMenu(menu);
+        }
+    }
+    
+    // a player quit, a session created since then belongs to a new login and is kept
+    void end(UUID player, MenuSession session) {
+        if (sessions.remove(player, session)) {
+            session.end();
+            ended.increment();
+        }
+    }
+    
+    // drop sessions of players who left or went idle outside any menu
+    void sweep(Predicate<UUID> inMenu) {
+        long timeout = idleTimeoutNanos;
+        Iterator<MenuSession> it = sessions.values().iterator();
+        while (it.hasNext()) {
+            MenuSession session = it.next();
+            UUID player = session.getPlayer();
+            
+            // the quit event should have ended it
+            if (Bukkit.getPlayer(player) == null) {
+                it.remove();
+                session.end();
+                leaked.increment();
+                continue;
+            }
+            
+            if (timeout > 0 && session.getIdleNanos() > timeout && !inMenu.test(player)) {
+                it.remove();
+                session.end();
+                evicted.increment();
+            }
+        }
+    }
+    
+    // end every session
+    public void clear() {
+        Iterator<MenuSession> it = sessions.values().iterator();
+        while (it.hasNext()) {
+            MenuSession session = it.next();
+            it.remove();
+            session.end();
+        }
+    }
+    
+    // getters
+    public int getSessionCount() {
+        return sessions.size();
+    }
+    
+    public long getEndedSessions() {
+        return ended.sum();
+    }
+    
+    public long getEvictedSessions() {
+        return evicted.sum();
+    }
+    
+    // sessions found for players no longer online, each one is a missed cleanup
+    public long getLeakedSessions() {
+        return leaked.sum();
+    }
+}
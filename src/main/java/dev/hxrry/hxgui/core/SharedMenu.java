@@ -4,10 +4,17 @@ import net.kyori.adventure.text.Component;
 import org.bukkit.entity.Player;
 import org.bukkit.event.inventory.InventoryType;
 import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.function.IntFunction;
 
 public class SharedMenu extends Menu {
     
-    private Inventory sharedInventory;
+    // viewers can sit in different regions on folia, so the inventory is
+    // created and dropped under the menu lock and always written from the
+    // global thread. a custom inventory is not tied to a region, each
+    // viewer's region picks the changes up on its own container tick
+    private volatile Inventory sharedInventory;
     
     // constructor for chest inventories
     public SharedMenu(Component title, int rows) {
@@ -25,7 +32,7 @@ public class SharedMenu extends Menu {
     }
     
     @Override
-    public Inventory getInventory(Player player) {
+    public synchronized Inventory getInventory(Player player) {
         // create the shared inventory if it doesn't exist
         if (sharedInventory == null) {
             sharedInventory = createInventory();
@@ -38,20 +45,36 @@ public class SharedMenu extends Menu {
     }
     
     @Override
-    public void updateAll() {
+    public synchronized void updateAll() {
+        if (deferRepaint()) {
+            return;
+        }
         // only need to update one inventory since its shared
-        if (sharedInventory != null) {
-            updateInventory(sharedInventory);
+        if (sharedInventory != null && !dirtySlots.isEmpty()) {
+            renderer.render(sharedInventory, itemSource, dirtySlots);
         }
+        dirtySlots.clear();
+    }
+    
+    // opening diffs from the viewer's thread, keep it apart from the flush
+    @Override
+    protected synchronized void updateInventory(Inventory inv) {
+        super.updateInventory(inv);
     }
     
+    // the global thread keeps the shared inventory current, an open snapshot could only be older
     @Override
-    public void onClose(Player player) {
+    protected void renderOpen(Inventory inv, IntFunction<ItemStack> snapshot) {
+    }
+    
+    @Override
+    public synchronized void onClose(Player player) {
         // remove player from tracking
         inventories.remove(player.getUniqueId());
         
         // if no one is viewing, clear the shared inventory
-        if (inventories.isEmpty()) {
+        if (inventories.isEmpty() && sharedInventory != null) {
+            renderer.forget(sharedInventory);
             sharedInventory = null;
         }
         
@@ -69,10 +92,12 @@ public class SharedMenu extends Menu {
         return inventories.size();
     }
     
-    // force refresh the shared inventory
+    // force refresh the shared inventory, also repaints stacks changed in place
     public void refresh() {
-        if (sharedInventory != null) {
-            updateInventory(sharedInventory);
+        Inventory inv = sharedInventory;
+        if (inv != null) {
+            renderer.forget(inv);
+            updateInventory(inv);
         }
     }
 }
\ No newline at end of file
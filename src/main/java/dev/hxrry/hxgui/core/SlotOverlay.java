@@ -0,0 +1,200 @@
+package dev.hxrry.hxgui.core;
+
+import java.util.Arrays;
+
+/**
+ * Sparse slot map for per-player overrides on top of a shared layout. Only
+ * the overridden slots are stored, packed in slot order behind an occupancy
+ * bitmask, so a viewer with three custom slots costs three references.
+ *
+ * A slot can be overridden with {@link MenuItem#empty()} to hide the base
+ * item, removing the override shows the base item again.
+ *
+ * Writes come from the thread owning the menu and copy the arrays, reads
+ * from any thread see one complete state through a single volatile read.
+ */
+public class SlotOverlay {
+    
+    private static final State EMPTY = new State(new long[0], new MenuItem[0]);
+    
+    private volatile State state = EMPTY;
+    
+    // check if a slot is overridden
+    public boolean has(int slot) {
+        return state.has(slot);
+    }
+    
+    // get the override for a slot, null if there is none
+    public MenuItem get(int slot) {
+        State current = state;
+        return current.has(slot) ? current.values[current.rank(slot)] : null;
+    }
+    
+    // override a slot, null removes the override
+    public void set(int slot, MenuItem item) {
+        if (slot < 0) {
+            throw new IndexOutOfBoundsException("slot " + slot);
+        }
+        if (item == null) {
+            remove(slot);
+            return;
+        }
+        
+        State current = state;
+        int index = current.rank(slot);
+        if (current.has(slot)) {
+            MenuItem[] values = current.values.clone();
+            values[index] = item;
+            state = new State(current.mask, values);
+            return;
+        }
+        
+        // grow the mask to cover the slot
+        int word = slot >>> 6;
+        long[] mask = Arrays.copyOf(current.mask, Math.max(current.mask.length, word + 1));
+        mask[word] |= 1L << slot;
+        
+        // insert at the slot's rank
+        MenuItem[] values = new MenuItem[current.values.length + 1];
+        System.arraycopy(current.values, 0, values, 0, index);
+        values[index] = item;
+        System.arraycopy(current.values, index, values, index + 1, current.values.length - index);
+        state = new State(mask, values);
+    }
+    
+    // override several slots in one write, readers see all of them or none, null items remove
+    public void setAll(int[] slots, MenuItem[] items) {
+        if (slots.length != items.length) {
+            throw new IllegalArgumentException("Got " + slots.length + " slots but " + items.length + " items");
+        }
+        State current = state;
+        
+        // unpack into slot order, apply the changes, pack again
+        int words = current.mask.length;
+        for (int slot : slots) {
+            if (slot < 0) {
+                throw new IndexOutOfBoundsException("slot " + slot);
+            }
+            words = Math.max(words, (slot >>> 6) + 1);
+        }
+        MenuItem[] dense = new MenuItem[words << 6];
+        current.unpack(dense);
+        for (int i = 0; i < slots.length; i++) {
+            dense[slots[i]] = items[i];
+        }
+        
+        long[] mask = new long[words];
+        int count = 0;
+        for (int slot = 0; slot < dense.length; slot++) {
+            if (dense[slot] != null) {
+                mask[slot >>> 6] |= 1L << slot;
+                count++;
+            }
+        }
+        MenuItem[] values = new MenuItem[count];
+        int index = 0;
+        for (MenuItem item : dense) {
+            if (item != null) {
+                values[index++] = item;
+            }
+        }
+        state = new State(mask, values);
+    }
+    
+    // drop the override for a slot, returns the old one
+    public MenuItem remove(int slot) {
+        State current = state;
+        if (!current.has(slot)) {
+            return null;
+        }
+        int index = current.rank(slot);
+        MenuItem previous = current.values[index];
+        
+        long[] mask = current.mask.clone();
+        mask[slot >>> 6] &= ~(1L << slot);
+        MenuItem[] values = new MenuItem[current.values.length - 1];
+        System.arraycopy(current.values, 0, values, 0, index);
+        System.arraycopy(current.values, index + 1, values, index, values.length - index);
+        state = new State(mask, values);
+        return previous;
+    }
+    
+    // first overridden slot at or after the given one, -1 if none
+    public int nextSlot(int from) {
+        return state.nextSlot(from);
+    }
+    
+    // visit every override in slot order
+    public void forEach(SlotStorage.SlotConsumer consumer) {
+        State current = state;
+        int index = 0;
+        for (int slot = current.nextSlot(0); slot >= 0; slot = current.nextSlot(slot + 1)) {
+            consumer.accept(slot, current.values[index++]);
+        }
+    }
+    
+    // drop every override
+    public void clear() {
+        state = EMPTY;
+    }
+    
+    // number of overridden slots
+    public int count() {
+        return state.values.length;
+    }
+    
+    public boolean isEmpty() {
+        return state.values.length == 0;
+    }
+    
+    // one published version of the overlay, never changed after creation
+    private record State(long[] mask, MenuItem[] values) {
+        
+        boolean has(int slot) {
+            int word = slot >>> 6;
+            return slot >= 0 && word < mask.length && (mask[word] & (1L << slot)) != 0;
+        }
+        
+        // write every override into a slot indexed array
+        void unpack(MenuItem[] dense) {
+            int index = 0;
+            for (int slot = nextSlot(0); slot >= 0; slot = nextSlot(slot + 1)) {
+                dense[slot] = values[index++];
+            }
+        }
+        
+        // position of a slot among the overridden ones
+        int rank(int slot) {
+            int word = slot >>> 6;
+            int rank = 0;
+            for (int i = 0; i < word && i < mask.length; i++) {
+                rank += Long.bitCount(mask[i]);
+            }
+            if (word < mask.length) {
+                rank += Long.bitCount(mask[word] & ((1L << slot) - 1));
+            }
+            return rank;
+        }
+        
+        int nextSlot(int from) {
+            if (from < 0) {
+                from = 0;
+            }
+            int word = from >>> 6;
+            if (word >= mask.length) {
+                return -1;
+            }
+            
+            long bits = mask[word] & (-1L << from);
+            while (true) {
+                if (bits != 0) {
+                    return (word << 6) + Long.numberOfTrailingZeros(bits);
+                }
+                if (++word == mask.length) {
+                    return -1;
+                }
+                bits = mask[word];
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package dev.hxrry.hxgui.core;
+
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.BitSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntFunction;
+
+/**
+ * Remembers what each open inventory currently shows so a repaint only
+ * writes the slots whose item actually changed.
+ *
+ * Item stacks handed to a menu are treated as read-only, set a new stack
+ * instead of mutating one that is already displayed.
+ */
+public class SlotRenderer {
+    
+    // last item written to each slot, per inventory. each array is only
+    // touched by the thread that owns the inventory's viewer
+    private final Map<Inventory, ItemStack[]> shown = new ConcurrentHashMap<>();
+    
+    // diff every slot of the inventory against the source
+    public void renderAll(Inventory inv, IntFunction<ItemStack> source) {
+        ItemStack[] current = stateFor(inv);
+        for (int slot = 0; slot < current.length; slot++) {
+            write(inv, current, slot, source.apply(slot));
+        }
+    }
+    
+    // diff only the given slots
+    public void render(Inventory inv, IntFunction<ItemStack> source, BitSet slots) {
+        ItemStack[] current = stateFor(inv);
+        for (int slot = slots.nextSetBit(0); slot >= 0 && slot < current.length; slot = slots.nextSetBit(slot + 1)) {
+            write(inv, current, slot, source.apply(slot));
+        }
+    }
+    
+    // drop remembered state once an inventory is no longer shown
+    public void forget(Inventory inv) {
+        shown.remove(inv);
+    }
+    
+    // stop tracking an inventory and hand over what it shows
+    public ItemStack[] detach(Inventory inv) {
+        return shown.remove(inv);
+    }
+    
+    // track an inventory that already shows the given items, null if it is empty
+    public void adopt(Inventory inv, ItemStack[] state) {
+        if (state != null && state.length == inv.getSize()) {
+            shown.put(inv, state);
+        }
+    }
+    
+    // drop everything
+    public void clear() {
+        shown.clear();
+    }
+    
+    // number of inventories being tracked
+    public int getTrackedCount() {
+        return shown.size();
+    }
+    
+    private ItemStack[] stateFor(Inventory inv) {
+        // freshly created inventories start out empty
+        return shown.computeIfAbsent(inv, key -> new ItemStack[key.getSize()]);
+    }
+    
+    private void write(Inventory inv, ItemStack[] current, int slot, ItemStack next) {
+        ItemStack previous = current[slot];
+        if (previous == next || (previous != null && previous.equals(next))) {
+            return;
+        }
+        inv.setItem(slot, next);
+        current[slot] = next;
+    }
+}
@@ -0,0 +1,222 @@
+package dev.hxrry.hxgui.core;
+
+import org.bukkit.event.inventory.ClickType;
+import org.bukkit.event.inventory.InventoryClickEvent;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Fixed size slot storage for a menu, a plain {@link MenuItem} array plus an
+ * occupancy bitmask so slot access never boxes and iteration skips empty
+ * slots without touching them.
+ *
+ * Each item keeps its own handlers in an array indexed by click type, so
+ * dispatching a click is two array reads and the storage holds no table of
+ * its own.
+ *
+ * Items are written by the thread owning the menu and read by click
+ * dispatch on the viewer's thread, so they live in an atomic array and a
+ * click always sees a fully written slot.
+ */
+public class SlotStorage {
+    
+    private final AtomicReferenceArray<MenuItem> slots;
+    private final long[] occupied;
+    private int count = 0;
+    
+    // lazily created read-only map view
+    private Map<Integer, MenuItem> mapView;
+    
+    public SlotStorage(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("size cannot be negative");
+        }
+        this.slots = new AtomicReferenceArray<>(size);
+        this.occupied = new long[(size + 63) >>> 6];
+    }
+    
+    // get item at slot, null if empty or out of range
+    public MenuItem get(int slot) {
+        if (slot < 0 || slot >= slots.length()) {
+            return null;
+        }
+        return slots.get(slot);
+    }
+    
+    // put an item in a slot, null clears it
+    public void set(int slot, MenuItem item) {
+        Objects.checkIndex(slot, slots.length());
+        if (item == null) {
+            remove(slot);
+            return;
+        }
+        if (slots.get(slot) == null) {
+            occupied[slot >>> 6] |= 1L << slot;
+            count++;
+        }
+        slots.set(slot, item);
+    }
+    
+    // clear a slot, returns the old item
+    public MenuItem remove(int slot) {
+        if (slot < 0 || slot >= slots.length()) {
+            return null;
+        }
+        MenuItem previous = slots.get(slot);
+        if (previous != null) {
+            occupied[slot >>> 6] &= ~(1L << slot);
+            slots.set(slot, null);
+            count--;
+        }
+        return previous;
+    }
+    
+    // handler for a click, null if the slot does not react to it
+    public Consumer<InventoryClickEvent> handlerAt(int slot, ClickType click) {
+        MenuItem item = get(slot);
+        return item != null ? item.getClickHandler(click) : null;
+    }
+    
+    // check if a slot holds an item
+    public boolean has(int slot) {
+        return slot >= 0 && slot < slots.length() && (occupied[slot >>> 6] & (1L << slot)) != 0;
+    }
+    
+    // first occupied slot at or after the given one, -1 if none
+    public int nextSlot(int from) {
+        if (from < 0) {
+            from = 0;
+        }
+        int word = from >>> 6;
+        if (word >= occupied.length) {
+            return -1;
+        }
+        
+        long bits = occupied[word] & (-1L << from);
+        while (true) {
+            if (bits != 0) {
+                return (word << 6) + Long.numberOfTrailingZeros(bits);
+            }
+            if (++word == occupied.length) {
+                return -1;
+            }
+            bits = occupied[word];
+        }
+    }
+    
+    // visit every occupied slot in order
+    public void forEach(SlotConsumer consumer) {
+        for (int slot = nextSlot(0); slot >= 0; slot = nextSlot(slot + 1)) {
+            consumer.accept(slot, slots.get(slot));
+        }
+    }
+    
+    // replace contents with another storage of the same size
+    public void copyFrom(SlotStorage other) {
+        if (other.slots.length() != slots.length()) {
+            throw new IllegalArgumentException("storage sizes differ: " + other.slots.length() + " != " + slots.length());
+        }
+        for (int i = 0; i < slots.length(); i++) {
+            slots.set(i, other.slots.get(i));
+        }
+        System.arraycopy(other.occupied, 0, occupied, 0, occupied.length);
+        count = other.count;
+    }
+    
+    // empty every slot
+    public void clear() {
+        for (int i = 0; i < slots.length(); i++) {
+            slots.set(i, null);
+        }
+        Arrays.fill(occupied, 0L);
+        count = 0;
+    }
+    
+    // number of slots
+    public int size() {
+        return slots.length();
+    }
+    
+    // number of occupied slots
+    public int count() {
+        return count;
+    }
+    
+    public boolean isEmpty() {
+        return count == 0;
+    }
+    
+    // read-only live map view, nothing is copied
+    public Map<Integer, MenuItem> asMap() {
+        if (mapView == null) {
+            mapView = new MapView();
+        }
+        return mapView;
+    }
+    
+    @FunctionalInterface
+    public interface SlotConsumer {
+        void accept(int slot, MenuItem item);
+    }
+    
+    private final class MapView extends AbstractMap<Integer, MenuItem> {
+        
+        private final Set<Entry<Integer, MenuItem>> entries = new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<Integer, MenuItem>> iterator() {
+                return new Iterator<>() {
+                    private int next = nextSlot(0);
+                    
+                    @Override
+                    public boolean hasNext() {
+                        return next >= 0;
+                    }
+                    
+                    @Override
+                    public Entry<Integer, MenuItem> next() {
+                        if (next < 0) {
+                            throw new NoSuchElementException();
+                        }
+                        int slot = next;
+                        next = nextSlot(slot + 1);
+                        return new SimpleImmutableEntry<>(slot, slots.get(slot));
+                    }
+                };
+            }
+            
+            @Override
+            public int size() {
+                return count;
+            }
+        };
+        
+        @Override
+        public Set<Entry<Integer, MenuItem>> entrySet() {
+            return entries;
+        }
+        
+        @Override
+        public MenuItem get(Object key) {
+            return key instanceof Integer slot ? SlotStorage.this.get(slot) : null;
+        }
+        
+        @Override
+        public boolean containsKey(Object key) {
+            return key instanceof Integer slot && has(slot);
+        }
+        
+        @Override
+        public int size() {
+            return count;
+        }
+    }
+}
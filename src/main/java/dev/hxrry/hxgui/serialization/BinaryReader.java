@@ -0,0 +1,141 @@
+package dev.hxrry.hxgui.serialization;
+
+import org.bukkit.inventory.ItemStack;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Streams items or a menu out of the HxGUI binary format, one record at a
+ * time. See {@link BinaryWriter} for the layout.
+ *
+ * <pre>
+ * try (BinaryReader reader = BinaryReader.open(in)) {
+ *     while (reader.hasNext()) {
+ *         ItemStack item = reader.readItem();
+ *     }
+ * }
+ * </pre>
+ */
+public class BinaryReader implements Closeable {
+    
+    // largest item accepted, guards against reading a corrupt length
+    private static final int MAX_ITEM_BYTES = 8 * 1024 * 1024;
+    
+    private final DataInputStream in;
+    private final int version;
+    private final byte kind;
+    
+    // menu header, null for item files
+    private String title;
+    private int rows;
+    private boolean shared;
+    
+    // tag of the next record, read ahead by hasNext
+    private int nextTag = -1;
+    
+    private BinaryReader(InputStream in) throws IOException {
+        this.in = new DataInputStream(new BufferedInputStream(in));
+        
+        if (this.in.readInt() != BinaryWriter.MAGIC) {
+            throw new IOException("not an HxGUI binary file");
+        }
+        this.version = this.in.readUnsignedShort();
+        if (version > BinaryWriter.VERSION) {
+            throw new IOException("unsupported binary version " + version + ", newest known is " + BinaryWriter.VERSION);
+        }
+        this.kind = this.in.readByte();
+        
+        if (kind == BinaryWriter.KIND_MENU) {
+            this.title = this.in.readUTF();
+            this.rows = this.in.readUnsignedByte();
+            this.shared = this.in.readBoolean();
+        } else if (kind != BinaryWriter.KIND_ITEMS) {
+            throw new IOException("unknown binary file kind " + kind);
+        }
+    }
+    
+    // read the header, the stream is positioned at the first record
+    public static BinaryReader open(InputStream in) throws IOException {
+        return new BinaryReader(in);
+    }
+    
+    // check if another record follows
+    public boolean hasNext() throws IOException {
+        if (nextTag < 0) {
+            nextTag = in.readUnsignedByte();
+        }
+        return nextTag != BinaryWriter.TAG_END;
+    }
+    
+    // next item of an items file, null for an empty one
+    public ItemStack readItem() throws IOException {
+        expect(BinaryWriter.TAG_ITEM);
+        return readStack();
+    }
+    
+    // next slot of a menu file
+    public Slot readSlot() throws IOException {
+        expect(BinaryWriter.TAG_SLOT);
+        int slot = in.readUnsignedShort();
+        String action = in.readUTF();
+        ItemStack item = readStack();
+        return new Slot(slot, item, action.isEmpty() ? null : action);
+    }
+    
+    private void expect(byte tag) throws IOException {
+        if (!hasNext()) {
+            throw new IOException("no more records");
+        }
+        if (nextTag != tag) {
+            throw new IOException("expected record " + tag + " but found " + nextTag);
+        }
+        nextTag = -1;
+    }
+    
+    private ItemStack readStack() throws IOException {
+        int length = in.readInt();
+        if (length == 0) {
+            return null;
+        }
+        if (length < 0 || length > MAX_ITEM_BYTES) {
+            throw new IOException("corrupt item length " + length);
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return ItemStack.deserializeBytes(bytes);
+    }
+    
+    // getters
+    public int getVersion() {
+        return version;
+    }
+    
+    public boolean isMenu() {
+        return kind == BinaryWriter.KIND_MENU;
+    }
+    
+    public String getTitle() {
+        return title;
+    }
+    
+    public int getRows() {
+        return rows;
+    }
+    
+    public boolean isShared() {
+        return shared;
+    }
+    
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+    
+    // one slot of a menu file, action is null when there is none
+    public record Slot(int slot, ItemStack item, String action) {
+    }
+}
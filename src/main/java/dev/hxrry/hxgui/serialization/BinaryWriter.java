@@ -0,0 +1,119 @@
+package dev.hxrry.hxgui.serialization;
+
+import org.bukkit.inventory.ItemStack;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Streams items or a menu into the HxGUI binary format.
+ *
+ * A file starts with the "HXGI" magic, the format version and what the
+ * file holds. Items are stored as Paper's own item bytes, so nothing is
+ * lost the way YAML drops unknown meta. Records follow one by one until
+ * {@link #close()} writes the end marker, a reader never needs the whole
+ * file in memory.
+ *
+ * <pre>
+ * header  int magic, short version, byte kind
+ * menu    utf title (MiniMessage), byte rows, boolean shared
+ * record  byte tag, then an item or a slot, tag 0 ends the file
+ * item    int length, length bytes, length 0 for an empty slot
+ * slot    short slot, utf action ("" for none), item
+ * </pre>
+ */
+public class BinaryWriter implements Closeable {
+    
+    static final int MAGIC = 0x48584749; // "HXGI"
+    public static final int VERSION = 1;
+    
+    // what a file holds
+    static final byte KIND_ITEMS = 1;
+    static final byte KIND_MENU = 2;
+    
+    // record tags
+    static final byte TAG_END = 0;
+    static final byte TAG_ITEM = 1;
+    static final byte TAG_SLOT = 2;
+    
+    private final DataOutputStream out;
+    private final byte kind;
+    private boolean closed;
+    
+    private BinaryWriter(OutputStream out, byte kind) throws IOException {
+        this.out = new DataOutputStream(new BufferedOutputStream(out));
+        this.kind = kind;
+        this.out.writeInt(MAGIC);
+        this.out.writeShort(VERSION);
+        this.out.writeByte(kind);
+    }
+    
+    // start a file of items
+    public static BinaryWriter items(OutputStream out) throws IOException {
+        return new BinaryWriter(out, KIND_ITEMS);
+    }
+    
+    // start a menu file, slots are written next
+    public static BinaryWriter menu(OutputStream out, String title, int rows, boolean shared) throws IOException {
+        BinaryWriter writer = new BinaryWriter(out, KIND_MENU);
+        writer.out.writeUTF(title);
+        writer.out.writeByte(rows);
+        writer.out.writeBoolean(shared);
+        return writer;
+    }
+    
+    // add an item to an items file
+    public BinaryWriter writeItem(ItemStack item) throws IOException {
+        check(KIND_ITEMS);
+        out.writeByte(TAG_ITEM);
+        writeStack(item);
+        return this;
+    }
+    
+    // add a slot to a menu file, action may be null
+    public BinaryWriter writeSlot(int slot, ItemStack item, String action) throws IOException {
+        check(KIND_MENU);
+        out.writeByte(TAG_SLOT);
+        out.writeShort(slot);
+        out.writeUTF(action != null ? action : "");
+        writeStack(item);
+        return this;
+    }
+    
+    private void writeStack(ItemStack item) throws IOException {
+        if (item == null || item.getType().isAir()) {
+            out.writeInt(0);
+            return;
+        }
+        byte[] bytes = item.serializeAsBytes();
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+    
+    private void check(byte expected) throws IOException {
+        if (closed) {
+            throw new IOException("writer is closed");
+        }
+        if (kind != expected) {
+            throw new IllegalStateException(kind == KIND_MENU ? "menu files hold slots, not items" : "item files hold items, not slots");
+        }
+    }
+    
+    // write the end marker and close the stream
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            out.writeByte(TAG_END);
+            out.flush();
+        } finally {
+            out.close();
+        }
+    }
+}
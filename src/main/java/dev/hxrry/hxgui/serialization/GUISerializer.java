@@ -3,17 +3,33 @@ package dev.hxrry.hxgui.serialization;
 import dev.hxrry.hxgui.builders.GUIBuilder;
 import dev.hxrry.hxgui.core.Menu;
 import dev.hxrry.hxgui.core.MenuItem;
+import dev.hxrry.hxgui.core.SharedMenu;
 import dev.hxrry.hxgui.utils.SlotPattern;
+import net.kyori.adventure.text.minimessage.MiniMessage;
+import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
 import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.InvalidConfigurationException;
 import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.plugin.Plugin;
 
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.logging.Level;
 
@@ -21,6 +37,7 @@ public class GUISerializer {
     
     private final Plugin plugin;
     private final ItemSerializer itemSerializer;
+    private final MiniMessage miniMessage = MiniMessage.miniMessage();
     private final Map<String, Consumer<Player>> actions = new HashMap<>();
     
     public GUISerializer(Plugin plugin) {
@@ -147,15 +164,7 @@ public class GUISerializer {
                 
                 if (itemSection != null) {
                     ItemStack item = itemSerializer.load(itemSection);
-                    String action = itemSection.getString("action");
-                    
-                    if (action != null && actions.containsKey(action)) {
-                        builder.item(slot, item, event -> {
-                            actions.get(action).accept((Player) event.getWhoClicked());
-                        });
-                    } else {
-                        builder.item(slot, item);
-                    }
+                    placeItem(builder, slot, item, itemSection.getString("action"));
                 }
             } catch (NumberFormatException e) {
                 plugin.getLogger().warning("invalid slot number: " + key);
@@ -163,6 +172,17 @@ public class GUISerializer {
         }
     }
     
+    // put a slot item, wiring its action if one is registered
+    private void placeItem(GUIBuilder builder, int slot, ItemStack item, String action) {
+        if (action != null && actions.containsKey(action)) {
+            builder.item(slot, item, event -> {
+                actions.get(action).accept((Player) event.getWhoClicked());
+            });
+        } else {
+            builder.item(slot, item);
+        }
+    }
+    
     // save gui to file
     public void save(Menu menu, File file) {
         YamlConfiguration config = new YamlConfiguration();
@@ -177,14 +197,73 @@ public class GUISerializer {
     
     // save gui to config
     public void save(Menu menu, ConfigurationSection config) {
-        config.set("title", menu.getTitle().toString());
+        // the title loads back as plain text, so save it as plain text
+        config.set("title", PlainTextComponentSerializer.plainText().serialize(menu.getTitle()));
         config.set("rows", menu.getRows());
+        if (menu instanceof SharedMenu) {
+            config.set("shared", true);
+        }
         
         // save items
         ConfigurationSection slots = config.createSection("slots");
-        for (Map.Entry<Integer, MenuItem> entry : menu.getItems().entrySet()) {
-            ConfigurationSection slot = slots.createSection(String.valueOf(entry.getKey()));
-            itemSerializer.save(entry.getValue().getItem(), slot);
+        menu.forEachItem((slot, item) -> {
+            ConfigurationSection section = slots.createSection(String.valueOf(slot));
+            itemSerializer.save(item.getItem(), section);
+        });
+    }
+    
+    // load gui from a binary file
+    public Menu loadBinary(File file) {
+        if (!file.exists()) {
+            plugin.getLogger().warning("gui file not found: " + file.getName());
+            return null;
+        }
+        
+        try (InputStream in = new FileInputStream(file)) {
+            return loadBinary(in);
+        } catch (Exception e) {
+            plugin.getLogger().log(Level.SEVERE, "failed to load binary gui: " + file.getName(), e);
+            return null;
+        }
+    }
+    
+    // load gui from a binary stream, slots are read one at a time
+    public Menu loadBinary(InputStream in) throws IOException {
+        BinaryReader reader = BinaryReader.open(in);
+        if (!reader.isMenu()) {
+            throw new IOException("binary file holds items, not a menu");
+        }
+        
+        GUIBuilder builder = GUIBuilder.chest()
+            .title(miniMessage.deserialize(reader.getTitle()))
+            .rows(reader.getRows())
+            .shared(reader.isShared());
+        
+        while (reader.hasNext()) {
+            BinaryReader.Slot slot = reader.readSlot();
+            if (slot.item() != null) {
+                placeItem(builder, slot.slot(), slot.item(), slot.action());
+            }
+        }
+        
+        return builder.build();
+    }
+    
+    // save gui to a binary file
+    public void saveBinary(Menu menu, File file) {
+        try (OutputStream out = new FileOutputStream(file)) {
+            saveBinary(menu, out);
+        } catch (Exception e) {
+            plugin.getLogger().log(Level.SEVERE, "failed to save binary gui", e);
+        }
+    }
+    
+    // save gui to a binary stream, like the yaml save actions are not kept
+    public void saveBinary(Menu menu, OutputStream out) throws IOException {
+        try (BinaryWriter writer = BinaryWriter.menu(out, miniMessage.serialize(menu.getTitle()), menu.getRows(), menu instanceof SharedMenu)) {
+            for (Map.Entry<Integer, MenuItem> entry : menu.getItems().entrySet()) {
+                writer.writeSlot(entry.getKey(), entry.getValue().getItem(), null);
+            }
         }
     }
     
@@ -200,7 +279,7 @@ public class GUISerializer {
         actions.put("menu", player -> player.performCommand("menu"));
     }
     
-    // load all guis from directory
+    // load all guis from directory, reading and item compiling run in parallel
     public Map<String, Menu> loadDirectory(File directory) {
         Map<String, Menu> guis = new HashMap<>();
         
@@ -211,15 +290,61 @@ public class GUISerializer {
         File[] files = directory.listFiles((dir, name) -> name.endsWith(".yml"));
         if (files == null) return guis;
         
-        for (File file : files) {
-            String name = file.getName().replace(".yml", "");
-            Menu menu = load(file);
-            if (menu != null) {
+        long start = System.nanoTime();
+        
+        // read, parse and compile items on virtual threads, closing waits for all of them
+        List<Future<YamlConfiguration>> prepared = new ArrayList<>(files.length);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (File file : files) {
+                prepared.add(executor.submit(() -> prepare(file)));
+            }
+        }
+        long built = System.nanoTime();
+        
+        // build the menus here, a broken file only loses itself
+        int failed = 0;
+        for (int i = 0; i < files.length; i++) {
+            String name = files[i].getName().replace(".yml", "");
+            try {
+                Menu menu = load(prepared.get(i).get());
                 guis.put(name, menu);
                 plugin.getLogger().info("loaded gui: " + name);
+            } catch (ExecutionException e) {
+                failed++;
+                plugin.getLogger().log(Level.SEVERE, "failed to read gui: " + name, e.getCause());
+            } catch (Exception e) {
+                failed++;
+                plugin.getLogger().log(Level.SEVERE, "failed to load gui: " + name, e);
             }
         }
         
+        long end = System.nanoTime();
+        plugin.getLogger().info(String.format("loaded %d guis in %d ms (read and compile %d ms, build %d ms, %d failed)",
+            guis.size(), toMillis(end - start), toMillis(built - start), toMillis(end - built), failed));
+        
         return guis;
     }
-}
\ No newline at end of file
+    
+    // everything about a file that doesn't need the server thread
+    private YamlConfiguration prepare(File file) throws IOException, InvalidConfigurationException {
+        YamlConfiguration config = new YamlConfiguration();
+        config.loadFromString(Files.readString(file.toPath()));
+        
+        // warm the definition cache so building only copies items
+        precompile(config.getConfigurationSection("slots"));
+        precompile(config.getConfigurationSection("items"));
+        return config;
+    }
+    
+    private void precompile(ConfigurationSection items) {
+        if (items == null) return;
+        
+        for (String key : items.getKeys(false)) {
+            itemSerializer.compile(items.getConfigurationSection(key));
+        }
+    }
+    
+    private static long toMillis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+}
@@ -0,0 +1,173 @@
+package dev.hxrry.hxgui.serialization;
+
+import dev.hxrry.hxgui.utils.MiniMessageCache;
+import net.kyori.adventure.text.Component;
+
+import io.papermc.paper.registry.RegistryAccess;
+import io.papermc.paper.registry.RegistryKey;
+
+import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.enchantments.Enchantment;
+import org.bukkit.inventory.ItemFlag;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+/**
+ * An item section compiled into a finished prototype.
+ *
+ * Materials, enchantments and flags are resolved and the text parsed once,
+ * at compile time. {@link #create()} then only copies the prototype, so
+ * loading the same section again costs a copy instead of a rebuild. The
+ * {@link ItemSerializer} keeps definitions keyed by section content.
+ */
+public final class ItemDefinition {
+    
+    // lookups shared by every compile, unknown names are not cached
+    private static final Map<String, Material> MATERIALS = new ConcurrentHashMap<>();
+    private static final Map<String, Enchantment> ENCHANTMENTS = new ConcurrentHashMap<>();
+    private static final Map<String, ItemFlag> FLAGS = new ConcurrentHashMap<>();
+    
+    private final ItemStack prototype;
+    
+    private ItemDefinition(ItemStack prototype) {
+        this.prototype = prototype;
+    }
+    
+    // a new item from the definition
+    public ItemStack create() {
+        return prototype.clone();
+    }
+    
+    // getters
+    public Material getMaterial() {
+        return prototype.getType();
+    }
+    
+    // build the prototype, problems are logged and skipped like before
+    static ItemDefinition compile(ConfigurationSection section, Logger logger) {
+        // get material
+        String materialName = section.getString("material", "STONE");
+        Material material = MATERIALS.computeIfAbsent(materialName.toUpperCase(), Material::getMaterial);
+        if (material == null) {
+            logger.warning("invalid material: " + materialName);
+            material = Material.STONE;
+        }
+        
+        // create item
+        ItemStack item = new ItemStack(material);
+        
+        // set amount
+        int amount = section.getInt("amount", 1);
+        item.setAmount(amount);
+        
+        // get meta
+        ItemMeta meta = item.getItemMeta();
+        if (meta == null) return new ItemDefinition(item);
+        
+        // set display name
+        if (section.contains("name")) {
+            String name = section.getString("name");
+            meta.displayName(MiniMessageCache.parseRaw(name));
+        }
+        
+        // set lore
+        if (section.contains("lore")) {
+            List<String> loreStrings = section.getStringList("lore");
+            List<Component> lore = new ArrayList<>();
+            for (String line : loreStrings) {
+                lore.add(MiniMessageCache.parseRaw(line));
+            }
+            meta.lore(lore);
+        }
+        
+        // add enchantments
+        if (section.contains("enchantments")) {
+            ConfigurationSection enchants = section.getConfigurationSection("enchantments");
+            if (enchants != null) {
+                for (String key : enchants.getKeys(false)) {
+                    try {
+                        Enchantment enchant = ENCHANTMENTS.computeIfAbsent(key.toLowerCase(), ItemDefinition::findEnchantment);
+                        
+                        if (enchant != null) {
+                            int level = enchants.getInt(key);
+                            meta.addEnchant(enchant, level, true);
+                        } else {
+                            logger.warning("enchantment not found: " + key);
+                        }
+                    } catch (Exception e) {
+                        logger.warning("invalid enchantment: " + key);
+                    }
+                }
+            }
+        }
+        
+        // add flags
+        if (section.contains("flags")) {
+            List<String> flags = section.getStringList("flags");
+            for (String flag : flags) {
+                ItemFlag itemFlag = FLAGS.computeIfAbsent(flag.toUpperCase(), ItemDefinition::findFlag);
+                if (itemFlag != null) {
+                    meta.addItemFlags(itemFlag);
+                } else {
+                    logger.warning("invalid item flag: " + flag);
+                }
+            }
+        }
+        
+        // set unbreakable
+        if (section.contains("unbreakable")) {
+            meta.setUnbreakable(section.getBoolean("unbreakable"));
+        }
+        
+        // set custom model data
+        if (section.contains("custom-model-data")) {
+            meta.setCustomModelData(section.getInt("custom-model-data"));
+        }
+        
+        // add glow effect
+        if (section.getBoolean("glow", false)) {
+            meta.addEnchant(Enchantment.UNBREAKING, 1, true);
+            meta.addItemFlags(ItemFlag.HIDE_ENCHANTS);
+        }
+        
+        // apply meta
+        item.setItemMeta(meta);
+        
+        return new ItemDefinition(item);
+    }
+    
+    // every leaf value of a section by path, equal sections give equal keys
+    static Map<String, Object> contentKey(ConfigurationSection section) {
+        Map<String, Object> key = new TreeMap<>();
+        for (Map.Entry<String, Object> entry : section.getValues(true).entrySet()) {
+            if (!(entry.getValue() instanceof ConfigurationSection)) {
+                key.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return key;
+    }
+    
+    private static Enchantment findEnchantment(String key) {
+        // use paper's registry access for 1.21+
+        return RegistryAccess.registryAccess()
+            .getRegistry(RegistryKey.ENCHANTMENT)
+            .get(NamespacedKey.minecraft(key));
+    }
+    
+    private static ItemFlag findFlag(String name) {
+        try {
+            return ItemFlag.valueOf(name);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
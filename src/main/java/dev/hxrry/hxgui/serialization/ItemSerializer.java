@@ -1,13 +1,11 @@
 package dev.hxrry.hxgui.serialization;
 
+import dev.hxrry.hxgui.builders.ItemTemplate;
+import dev.hxrry.hxgui.utils.MiniMessageCache;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.minimessage.MiniMessage;
 
-import io.papermc.paper.registry.RegistryAccess;  // use paper's registry
-import io.papermc.paper.registry.RegistryKey;     // add this too
-
 import org.bukkit.Material;
-import org.bukkit.NamespacedKey;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.enchantments.Enchantment;
 import org.bukkit.inventory.ItemFlag;
@@ -15,8 +13,15 @@ import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
 import org.bukkit.plugin.Plugin;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.logging.Level;
 
 public class ItemSerializer {
@@ -24,109 +29,75 @@ public class ItemSerializer {
     private final Plugin plugin;
     private final MiniMessage miniMessage = MiniMessage.miniMessage();
     
+    // compiled items by section content
+    private final Map<Map<String, Object>, ItemDefinition> definitions = new ConcurrentHashMap<>();
+    private volatile int maxDefinitions = 16384;
+    private final LongAdder definitionHits = new LongAdder();
+    private final LongAdder definitionMisses = new LongAdder();
+    
     public ItemSerializer(Plugin plugin) {
         this.plugin = plugin;
     }
     
     // load item from config
     public ItemStack load(ConfigurationSection section) {
+        ItemDefinition definition = compile(section);
+        return definition != null ? definition.create() : null;
+    }
+    
+    // compile a section, equal sections share one definition
+    public ItemDefinition compile(ConfigurationSection section) {
         if (section == null) return null;
         
-        // get material
-        String materialName = section.getString("material", "STONE");
-        Material material;
-        try {
-            material = Material.valueOf(materialName.toUpperCase());
-        } catch (IllegalArgumentException e) {
-            plugin.getLogger().warning("invalid material: " + materialName);
-            material = Material.STONE;
-        }
-        
-        // create item
-        ItemStack item = new ItemStack(material);
-        
-        // set amount
-        int amount = section.getInt("amount", 1);
-        item.setAmount(amount);
-        
-        // get meta
-        ItemMeta meta = item.getItemMeta();
-        if (meta == null) return item;
-        
-        // set display name
-        if (section.contains("name")) {
-            String name = section.getString("name");
-            Component component = miniMessage.deserialize(name);
-            meta.displayName(component);
-        }
-        
-        // set lore
-        if (section.contains("lore")) {
-            List<String> loreStrings = section.getStringList("lore");
-            List<Component> lore = new ArrayList<>();
-            for (String line : loreStrings) {
-                lore.add(miniMessage.deserialize(line));
-            }
-            meta.lore(lore);
-        }
-        
-        // add enchantments
-        if (section.contains("enchantments")) {
-            ConfigurationSection enchants = section.getConfigurationSection("enchantments");
-            if (enchants != null) {
-                for (String key : enchants.getKeys(false)) {
-                    try {
-                        // use paper's registry access for 1.21+
-                        Enchantment enchant = RegistryAccess.registryAccess()
-                            .getRegistry(RegistryKey.ENCHANTMENT)
-                            .get(NamespacedKey.minecraft(key.toLowerCase()));
-                        
-                        if (enchant != null) {
-                            int level = enchants.getInt(key);
-                            meta.addEnchant(enchant, level, true);
-                        } else {
-                            plugin.getLogger().warning("enchantment not found: " + key);
-                        }
-                    } catch (Exception e) {
-                        plugin.getLogger().warning("invalid enchantment: " + key);
-                    }
-                }
-            }
+        Map<String, Object> key = ItemDefinition.contentKey(section);
+        ItemDefinition definition = definitions.get(key);
+        if (definition != null) {
+            definitionHits.increment();
+            return definition;
         }
         
-        // add flags
-        if (section.contains("flags")) {
-            List<String> flags = section.getStringList("flags");
-            for (String flag : flags) {
-                try {
-                    ItemFlag itemFlag = ItemFlag.valueOf(flag.toUpperCase());
-                    meta.addItemFlags(itemFlag);
-                } catch (IllegalArgumentException e) {
-                    plugin.getLogger().warning("invalid item flag: " + flag);
-                }
+        definitionMisses.increment();
+        definition = ItemDefinition.compile(section, plugin.getLogger());
+        if (definitions.size() < maxDefinitions) {
+            ItemDefinition existing = definitions.putIfAbsent(key, definition);
+            if (existing != null) {
+                return existing;
             }
         }
+        return definition;
+    }
+    
+    // max number of cached definitions
+    public ItemSerializer maxDefinitions(int maxDefinitions) {
+        this.maxDefinitions = maxDefinitions;
+        return this;
+    }
+    
+    // forget compiled definitions, e.g. before a reload
+    public void clearDefinitions() {
+        definitions.clear();
+    }
+    
+    public int getDefinitionCount() {
+        return definitions.size();
+    }
+    
+    public long getDefinitionHits() {
+        return definitionHits.sum();
+    }
+    
+    public long getDefinitionMisses() {
+        return definitionMisses.sum();
+    }
+    
+    // load an item template, {key} placeholders in name and lore are filled per render
+    public ItemTemplate loadTemplate(ConfigurationSection section) {
+        if (section == null) return null;
         
-        // set unbreakable
-        if (section.contains("unbreakable")) {
-            meta.setUnbreakable(section.getBoolean("unbreakable"));
-        }
-        
-        // set custom model data
-        if (section.contains("custom-model-data")) {
-            meta.setCustomModelData(section.getInt("custom-model-data"));
-        }
-        
-        // add glow effect
-        if (section.getBoolean("glow", false)) {
-            meta.addEnchant(Enchantment.UNBREAKING, 1, true);
-            meta.addItemFlags(ItemFlag.HIDE_ENCHANTS);
-        }
-        
-        // apply meta
-        item.setItemMeta(meta);
-        
-        return item;
+        ItemStack item = load(section);
+        String name = section.getString("name");
+        List<String> lore = section.contains("lore") ? section.getStringList("lore") : null;
+        return new ItemTemplate(item, name, lore, false);
     }
     
     // save item to config
@@ -194,6 +165,29 @@ public class ItemSerializer {
         }
     }
     
+    // read every item of a binary items file
+    public List<ItemStack> loadBinary(InputStream in) throws IOException {
+        List<ItemStack> items = new ArrayList<>();
+        try (BinaryReader reader = BinaryReader.open(in)) {
+            if (reader.isMenu()) {
+                throw new IOException("binary file holds a menu, not items");
+            }
+            while (reader.hasNext()) {
+                items.add(reader.readItem());
+            }
+        }
+        return items;
+    }
+    
+    // write items as a binary items file, exact down to every component
+    public void saveBinary(Collection<ItemStack> items, OutputStream out) throws IOException {
+        try (BinaryWriter writer = BinaryWriter.items(out)) {
+            for (ItemStack item : items) {
+                writer.writeItem(item);
+            }
+        }
+    }
+    
     // quick load from string format
     public ItemStack quickLoad(String data) {
         // format: "MATERIAL:amount:name"
@@ -211,7 +205,7 @@ public class ItemSerializer {
             if (parts.length > 2) {
                 ItemMeta meta = item.getItemMeta();
                 if (meta != null) {
-                    meta.displayName(miniMessage.deserialize(parts[2]));
+                    meta.displayName(MiniMessageCache.parseRaw(parts[2]));
                     item.setItemMeta(meta);
                 }
             }
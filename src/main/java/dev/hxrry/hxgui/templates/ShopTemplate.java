@@ -4,6 +4,7 @@ import dev.hxrry.hxgui.builders.GUIBuilder;
 import dev.hxrry.hxgui.builders.ItemBuilder;
 import dev.hxrry.hxgui.core.Menu;
 import dev.hxrry.hxgui.core.MenuItem;
+import dev.hxrry.hxgui.core.MenuLayout;
 import org.bukkit.Material;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
@@ -23,6 +24,9 @@ public class ShopTemplate implements Template {
     private boolean showBalance = true;
     private boolean showBorder = true;
     
+    // compiled once and reused for every open, dropped when anything changes
+    private MenuLayout layout;
+    
     // slots for special items
     private static final int BALANCE_SLOT = 4;
     private static final int[] CATEGORY_SLOTS = {0, 1, 2, 6, 7, 8};
@@ -83,26 +87,42 @@ public class ShopTemplate implements Template {
     
     @Override
     public void apply(Menu menu) {
-        // apply default items
-        for (Map.Entry<Integer, ItemStack> entry : getDefaultItems().entrySet()) {
-            menu.setItem(entry.getKey(), entry.getValue());
-        }
-        
-        // apply configured items
-        for (Map.Entry<Integer, MenuItem> entry : items.entrySet()) {
-            menu.setItem(entry.getKey(), entry.getValue());
-        }
+        menu.batch(() -> {
+            // apply default items
+            for (Map.Entry<Integer, ItemStack> entry : getDefaultItems().entrySet()) {
+                menu.setItem(entry.getKey(), MenuItem.shared(entry.getValue()));
+            }
+            
+            // apply configured items
+            for (Map.Entry<Integer, MenuItem> entry : items.entrySet()) {
+                menu.setItem(entry.getKey(), entry.getValue());
+            }
+        });
     }
     
     @Override
     public void open(Player player) {
-        Menu menu = GUIBuilder.chest()
-            .title(title)
-            .rows(6)
-            .build();
+        getLayout().open(player);
+    }
+    
+    // get the compiled layout, building it if something changed
+    public MenuLayout getLayout() {
+        if (layout == null) {
+            GUIBuilder builder = GUIBuilder.chest()
+                .title(title)
+                .rows(6);
             
-        apply(menu);
-        menu.open(player);
+            // configured items win over the defaults, same as apply
+            for (Map.Entry<Integer, ItemStack> entry : getDefaultItems().entrySet()) {
+                builder.item(entry.getKey(), entry.getValue());
+            }
+            for (Map.Entry<Integer, MenuItem> entry : items.entrySet()) {
+                builder.item(entry.getKey(), entry.getValue());
+            }
+            
+            layout = builder.compile();
+        }
+        return layout;
     }
     
     @Override
@@ -146,6 +166,7 @@ public class ShopTemplate implements Template {
                     // todo: check money here when economy is added
                     item.onPurchase.accept(p);
                 }));
+                layout = null;
                 
                 break;
             }
@@ -163,6 +184,7 @@ public class ShopTemplate implements Template {
                     .build();
                     
                 items.put(slot, new MenuItem(categoryItem, event -> onClick.run()));
+                layout = null;
                 break;
             }
         }
@@ -179,22 +201,26 @@ public class ShopTemplate implements Template {
             .build();
             
         items.put(BALANCE_SLOT, new MenuItem(balanceItem));
+        layout = null;
         return this;
     }
     
     // configuration methods
     public ShopTemplate showCategories(boolean show) {
         this.showCategories = show;
+        layout = null;
         return this;
     }
     
     public ShopTemplate showBalance(boolean show) {
         this.showBalance = show;
+        layout = null;
         return this;
     }
     
     public ShopTemplate showBorder(boolean show) {
         this.showBorder = show;
+        layout = null;
         return this;
     }
     
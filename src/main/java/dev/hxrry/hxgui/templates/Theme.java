@@ -1,12 +1,13 @@
 package dev.hxrry.hxgui.templates;
 
 import dev.hxrry.hxgui.builders.ItemBuilder;
+import dev.hxrry.hxgui.core.MenuItem;
 import org.bukkit.Material;
 import org.bukkit.inventory.ItemStack;
 
 public class Theme {
     
-    // valesmp color scheme
+    // default valesmp color scheme, the active colours come from ThemeRegistry.palette()
     public static final String PRIMARY_COLOR = "<#00ff88>";   // mint green
     public static final String SECONDARY_COLOR = "<#0088ff>"; // sky blue
     public static final String ACCENT_COLOR = "<gold>";        // gold
@@ -25,113 +26,107 @@ public class Theme {
     public static final Material BACK_MATERIAL = Material.ARROW;
     public static final Material CLOSE_MATERIAL = Material.BARRIER;
     
-    // pre-built themed items
+    // pre-built themed items, copies of the active theme's rendered items
     
     public static ItemStack border() {
-        return new ItemBuilder(BORDER_MATERIAL)
-            .name(" ")
-            .build();
+        return ThemeRegistry.stack(ThemeItem.BORDER);
     }
     
     public static ItemStack filler() {
-        return new ItemBuilder(FILLER_MATERIAL)
-            .name(" ")
-            .build();
+        return ThemeRegistry.stack(ThemeItem.FILLER);
+    }
+    
+    // border and filler as shared menu items
+    public static MenuItem borderItem() {
+        return ThemeRegistry.item(ThemeItem.BORDER);
+    }
+    
+    public static MenuItem fillerItem() {
+        return ThemeRegistry.item(ThemeItem.FILLER);
     }
     
     public static ItemStack nextButton() {
-        return new ItemBuilder(NEXT_MATERIAL)
-            .name(PRIMARY_COLOR + "Next Page →")
-            .lore(TEXT_COLOR + "Click to go forward")
-            .build();
+        return ThemeRegistry.stack(ThemeItem.NEXT);
     }
     
     public static ItemStack backButton() {
-        return new ItemBuilder(BACK_MATERIAL)
-            .name(PRIMARY_COLOR + "← Previous Page")
-            .lore(TEXT_COLOR + "Click to go back")
-            .build();
+        return ThemeRegistry.stack(ThemeItem.BACK);
     }
     
     public static ItemStack closeButton() {
-        return new ItemBuilder(CLOSE_MATERIAL)
-            .name(ERROR_COLOR + "Close")
-            .lore(TEXT_COLOR + "Click to exit")
-            .build();
+        return ThemeRegistry.stack(ThemeItem.CLOSE);
     }
     
     public static ItemStack confirmButton() {
-        return new ItemBuilder(CONFIRM_MATERIAL)
-            .name(SUCCESS_COLOR + "✓ Confirm")
-            .lore(TEXT_COLOR + "Click to confirm")
-            .glow()
-            .build();
+        return ThemeRegistry.stack(ThemeItem.CONFIRM);
     }
     
     public static ItemStack cancelButton() {
-        return new ItemBuilder(CANCEL_MATERIAL)
-            .name(ERROR_COLOR + "✗ Cancel")
-            .lore(TEXT_COLOR + "Click to cancel")
-            .build();
+        return ThemeRegistry.stack(ThemeItem.CANCEL);
     }
     
     public static ItemStack infoItem(String title, String... lore) {
         return new ItemBuilder(INFO_MATERIAL)
-            .name(HIGHLIGHT_COLOR + title)
+            .name(ThemeRegistry.palette().highlight() + title)
             .lore(lore)
             .build();
     }
     
     // themed title formatting
     public static String formatTitle(String title) {
-        return PRIMARY_COLOR + "» " + SECONDARY_COLOR + title + PRIMARY_COLOR + " «";
+        ThemePalette palette = ThemeRegistry.palette();
+        return palette.primary() + "» " + palette.secondary() + title + palette.primary() + " «";
     }
     
     // category formatting
     public static String formatCategory(String category) {
-        return ACCENT_COLOR + "▶ " + category;
+        return ThemeRegistry.palette().accent() + "▶ " + category;
     }
     
     // price formatting
     public static String formatPrice(double price) {
-        return TEXT_COLOR + "Price: " + ACCENT_COLOR + "$" + String.format("%.2f", price);
+        ThemePalette palette = ThemeRegistry.palette();
+        return palette.text() + "Price: " + palette.accent() + "$" + String.format("%.2f", price);
     }
     
     // status formatting
     public static String formatEnabled(boolean enabled) {
+        ThemePalette palette = ThemeRegistry.palette();
         return enabled ? 
-            SUCCESS_COLOR + "● Enabled" : 
-            ERROR_COLOR + "● Disabled";
+            palette.success() + "● Enabled" : 
+            palette.error() + "● Disabled";
     }
     
     // selection formatting
     public static String formatSelected(boolean selected) {
+        ThemePalette palette = ThemeRegistry.palette();
         return selected ?
-            SUCCESS_COLOR + "✓ Selected" :
-            TEXT_COLOR + "Click to select";
+            palette.success() + "✓ Selected" :
+            palette.text() + "Click to select";
     }
     
     // progress bar
     public static String progressBar(int current, int max, int length) {
+        ThemePalette palette = ThemeRegistry.palette();
         int filled = (int) ((double) current / max * length);
-        StringBuilder bar = new StringBuilder(TEXT_COLOR + "[" + SUCCESS_COLOR);
+        StringBuilder bar = new StringBuilder(palette.text() + "[" + palette.success());
         
         for (int i = 0; i < length; i++) {
             if (i < filled) {
                 bar.append("■");
             } else {
-                bar.append(TEXT_COLOR).append("■");
+                bar.append(palette.text()).append("■");
             }
         }
         
-        bar.append(TEXT_COLOR).append("]");
+        bar.append(palette.text()).append("]");
         return bar.toString();
     }
     
     // apply theme to item name
     public static ItemBuilder themed(Material material, String name) {
         return new ItemBuilder(material)
-            .name(PRIMARY_COLOR + name);
+            .name(ThemeRegistry.palette().primary() + name);
     }
     
     // create themed slot pattern for borders
@@ -0,0 +1,55 @@
+package dev.hxrry.hxgui.templates;
+
+import org.bukkit.Material;
+
+import java.util.List;
+
+/**
+ * Items every theme provides. Names and lore are MiniMessage text with
+ * {@link ThemePalette} colour tokens, a theme file can override any of
+ * them under its items section.
+ */
+public enum ThemeItem {
+    
+    BORDER(Theme.BORDER_MATERIAL, " ", List.of(), false),
+    FILLER(Theme.FILLER_MATERIAL, " ", List.of(), false),
+    NEXT(Theme.NEXT_MATERIAL, "{primary}Next Page →", List.of("{text}Click to go forward"), false),
+    BACK(Theme.BACK_MATERIAL, "{primary}← Previous Page", List.of("{text}Click to go back"), false),
+    CLOSE(Theme.CLOSE_MATERIAL, "{error}Close", List.of("{text}Click to exit"), false),
+    CONFIRM(Theme.CONFIRM_MATERIAL, "{success}✓ Confirm", List.of("{text}Click to confirm"), true),
+    CANCEL(Theme.CANCEL_MATERIAL, "{error}✗ Cancel", List.of("{text}Click to cancel"), false);
+    
+    private final Material material;
+    private final String displayName;
+    private final List<String> lore;
+    private final boolean glow;
+    
+    ThemeItem(Material material, String name, List<String> lore, boolean glow) {
+        this.material = material;
+        this.displayName = name;
+        this.lore = lore;
+        this.glow = glow;
+    }
+    
+    // key used in theme files, e.g. "next"
+    public String getKey() {
+        return name().toLowerCase();
+    }
+    
+    // getters
+    public Material getMaterial() {
+        return material;
+    }
+    
+    public String getDisplayName() {
+        return displayName;
+    }
+    
+    public List<String> getLore() {
+        return lore;
+    }
+    
+    public boolean isGlowing() {
+        return glow;
+    }
+}
@@ -0,0 +1,53 @@
+package dev.hxrry.hxgui.templates;
+
+import org.bukkit.configuration.ConfigurationSection;
+
+/**
+ * The MiniMessage colours of a theme. Themed text refers to them with
+ * {primary}, {text} and so on, see {@link #apply(String)}.
+ */
+public record ThemePalette(String primary, String secondary, String accent, String error,
+                           String success, String text, String highlight) {
+    
+    // valesmp color scheme
+    public static final ThemePalette DEFAULT = new ThemePalette(
+        Theme.PRIMARY_COLOR,
+        Theme.SECONDARY_COLOR,
+        Theme.ACCENT_COLOR,
+        Theme.ERROR_COLOR,
+        Theme.SUCCESS_COLOR,
+        Theme.TEXT_COLOR,
+        Theme.HIGHLIGHT_COLOR
+    );
+    
+    // replace the colour tokens in a line of text
+    public String apply(String line) {
+        if (line.indexOf('{') < 0) {
+            return line;
+        }
+        return line
+            .replace("{primary}", primary)
+            .replace("{secondary}", secondary)
+            .replace("{accent}", accent)
+            .replace("{error}", error)
+            .replace("{success}", success)
+            .replace("{text}", text)
+            .replace("{highlight}", highlight);
+    }
+    
+    // read colours from config, missing ones come from the fallback
+    public static ThemePalette load(ConfigurationSection section, ThemePalette fallback) {
+        if (section == null) {
+            return fallback;
+        }
+        return new ThemePalette(
+            section.getString("primary", fallback.primary),
+            section.getString("secondary", fallback.secondary),
+            section.getString("accent", fallback.accent),
+            section.getString("error", fallback.error),
+            section.getString("success", fallback.success),
+            section.getString("text", fallback.text),
+            section.getString("highlight", fallback.highlight)
+        );
+    }
+}
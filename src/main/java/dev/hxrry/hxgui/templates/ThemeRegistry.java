@@ -0,0 +1,201 @@
+package dev.hxrry.hxgui.templates;
+
+import dev.hxrry.hxgui.HxGUI;
+import dev.hxrry.hxgui.builders.ItemBuilder;
+import dev.hxrry.hxgui.core.MenuItem;
+import org.bukkit.Material;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.inventory.ItemStack;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Themes with their items rendered up front.
+ *
+ * Each theme renders every {@link ThemeItem} once into a shared menu
+ * item, so asking for a button is an array lookup. Registering, loading
+ * and switching themes build a complete new snapshot and publish it in
+ * one write, readers never see half a theme.
+ *
+ * <pre>
+ * themes:
+ *   winter:
+ *     colors:
+ *       primary: "&lt;aqua&gt;"
+ *     items:
+ *       next:
+ *         material: SNOWBALL
+ *         name: "{primary}Onwards"
+ * active: winter
+ * </pre>
+ */
+public final class ThemeRegistry {
+    
+    public static final String DEFAULT_THEME = "default";
+    
+    private static final ThemeItem[] ITEMS = ThemeItem.values();
+    
+    private static volatile Snapshot snapshot = Snapshot.initial();
+    
+    private ThemeRegistry() {
+    }
+    
+    // themed item of the active theme
+    public static MenuItem item(ThemeItem type) {
+        return snapshot.active.items[type.ordinal()];
+    }
+    
+    // copy of a themed item's stack
+    public static ItemStack stack(ThemeItem type) {
+        return item(type).getItem();
+    }
+    
+    // colours of the active theme
+    public static ThemePalette palette() {
+        return snapshot.active.palette;
+    }
+    
+    // register a theme with the default items in the given colours
+    public static synchronized void register(String name, ThemePalette palette) {
+        Map<String, Rendered> themes = new LinkedHashMap<>(snapshot.themes);
+        Rendered theme = render(name, palette, null);
+        themes.put(name, theme);
+        Rendered active = snapshot.active.name.equals(name) ? theme : snapshot.active;
+        snapshot = new Snapshot(themes, active);
+    }
+    
+    // switch the active theme
+    public static synchronized void use(String name) {
+        Rendered theme = snapshot.themes.get(name);
+        if (theme == null) {
+            throw new IllegalArgumentException("Unknown theme: " + name);
+        }
+        snapshot = new Snapshot(snapshot.themes, theme);
+    }
+    
+    // load themes from a file, replacing every loaded theme
+    public static void load(File file) {
+        load(YamlConfiguration.loadConfiguration(file));
+    }
+    
+    // load themes from config, replacing every loaded theme
+    public static void load(ConfigurationSection config) {
+        Map<String, Rendered> themes = new LinkedHashMap<>();
+        themes.put(DEFAULT_THEME, render(DEFAULT_THEME, ThemePalette.DEFAULT, null));
+        
+        // render everything before publishing so a reload swaps in one step
+        ConfigurationSection section = config.getConfigurationSection("themes");
+        if (section != null) {
+            for (String name : section.getKeys(false)) {
+                ConfigurationSection themeSection = section.getConfigurationSection(name);
+                if (themeSection == null) {
+                    continue;
+                }
+                ThemePalette palette = ThemePalette.load(themeSection.getConfigurationSection("colors"), ThemePalette.DEFAULT);
+                themes.put(name, render(name, palette, themeSection.getConfigurationSection("items")));
+            }
+        }
+        
+        String activeName = config.getString("active", DEFAULT_THEME);
+        Rendered active = themes.get(activeName);
+        if (active == null) {
+            warn("unknown active theme: " + activeName);
+            active = themes.get(DEFAULT_THEME);
+        }
+        
+        synchronized (ThemeRegistry.class) {
+            snapshot = new Snapshot(themes, active);
+        }
+    }
+    
+    // drop every theme except the default
+    public static synchronized void reset() {
+        snapshot = Snapshot.initial();
+    }
+    
+    // getters
+    public static String getActiveTheme() {
+        return snapshot.active.name;
+    }
+    
+    public static Set<String> getThemes() {
+        return snapshot.themes.keySet();
+    }
+    
+    private static Rendered render(String name, ThemePalette palette, ConfigurationSection items) {
+        MenuItem[] rendered = new MenuItem[ITEMS.length];
+        for (ThemeItem type : ITEMS) {
+            ConfigurationSection section = items != null ? items.getConfigurationSection(type.getKey()) : null;
+            rendered[type.ordinal()] = MenuItem.shared(build(type, palette, section));
+        }
+        return new Rendered(name, palette, rendered);
+    }
+    
+    // build one item, the section overrides the item's defaults
+    private static ItemStack build(ThemeItem type, ThemePalette palette, ConfigurationSection section) {
+        Material material = type.getMaterial();
+        String name = type.getDisplayName();
+        List<String> lore = type.getLore();
+        boolean glow = type.isGlowing();
+        
+        if (section != null) {
+            String materialName = section.getString("material");
+            if (materialName != null) {
+                Material parsed = Material.matchMaterial(materialName);
+                if (parsed != null) {
+                    material = parsed;
+                } else {
+                    warn("invalid material in theme: " + materialName);
+                }
+            }
+            name = section.getString("name", name);
+            if (section.contains("lore")) {
+                lore = section.getStringList("lore");
+            }
+            glow = section.getBoolean("glow", glow);
+        }
+        
+        ItemBuilder builder = new ItemBuilder(material).name(palette.apply(name));
+        if (!lore.isEmpty()) {
+            String[] lines = new String[lore.size()];
+            for (int i = 0; i < lines.length; i++) {
+                lines[i] = palette.apply(lore.get(i));
+            }
+            builder.lore(lines);
+        }
+        if (glow) {
+            builder.glow();
+        }
+        return builder.build();
+    }
+    
+    private static void warn(String message) {
+        if (HxGUI.isInitialized()) {
+            HxGUI.getInstance().getPlugin().getLogger().warning(message);
+        }
+    }
+    
+    // one rendered theme
+    private record Rendered(String name, ThemePalette palette, MenuItem[] items) {
+    }
+    
+    // every theme and the active one, replaced as a whole
+    private record Snapshot(Map<String, Rendered> themes, Rendered active) {
+        
+        Snapshot(Map<String, Rendered> themes, Rendered active) {
+            this.themes = Collections.unmodifiableMap(themes);
+            this.active = active;
+        }
+        
+        static Snapshot initial() {
+            Rendered theme = render(DEFAULT_THEME, ThemePalette.DEFAULT, null);
+            return new Snapshot(Map.of(DEFAULT_THEME, theme), theme);
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package dev.hxrry.hxgui.utils;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.TextDecoration;
+import net.kyori.adventure.text.minimessage.MiniMessage;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Shared cache from MiniMessage source to the parsed item text. {@link #parse}
+ * switches italics off the way built items need them, {@link #parseRaw}
+ * keeps the text exactly as written, like loaded config text always was.
+ *
+ * GUI text is mostly the same few constant strings, so parsing each of
+ * them once saves most of the parsing work. Components are immutable and
+ * safe to share. The cache is split into stripes, each one a small LRU
+ * map behind its own lock, so threads rarely wait on each other.
+ */
+public final class MiniMessageCache {
+    
+    private static final int STRIPES = 16;
+    private static final MiniMessage MINI_MESSAGE = MiniMessage.miniMessage();
+    private static final Stripe[] CACHE = new Stripe[STRIPES];
+    private static final Stripe[] RAW = new Stripe[STRIPES];
+    
+    private static volatile boolean enabled = true;
+    private static volatile int maxSize = 4096;
+    
+    // counters
+    private static final LongAdder HITS = new LongAdder();
+    private static final LongAdder MISSES = new LongAdder();
+    private static final LongAdder EVICTIONS = new LongAdder();
+    
+    static {
+        for (int i = 0; i < STRIPES; i++) {
+            CACHE[i] = new Stripe();
+            RAW[i] = new Stripe();
+        }
+    }
+    
+    private MiniMessageCache() {
+    }
+    
+    // parse item text, italics off
+    public static Component parse(String source) {
+        return cached(CACHE, source, true);
+    }
+    
+    // parse text as written, the client's default italics stay
+    public static Component parseRaw(String source) {
+        return cached(RAW, source, false);
+    }
+    
+    private static Component cached(Stripe[] cache, String source, boolean italicOff) {
+        if (!enabled) {
+            return render(source, italicOff);
+        }
+        
+        Stripe stripe = cache[(source.hashCode() ^ (source.hashCode() >>> 16)) & (STRIPES - 1)];
+        synchronized (stripe) {
+            Component cached = stripe.get(source);
+            if (cached != null) {
+                HITS.increment();
+                return cached;
+            }
+        }
+        
+        // parse outside the lock, a racing thread parses the same string at worst
+        MISSES.increment();
+        Component parsed = render(source, italicOff);
+        synchronized (stripe) {
+            stripe.put(source, parsed);
+        }
+        return parsed;
+    }
+    
+    private static Component render(String source, boolean italicOff) {
+        Component parsed = MINI_MESSAGE.deserialize(source);
+        return italicOff ? parsed.decoration(TextDecoration.ITALIC, false) : parsed;
+    }
+    
+    // turn caching on or off, off parses on every call
+    public static void setEnabled(boolean enabled) {
+        MiniMessageCache.enabled = enabled;
+        if (!enabled) {
+            clear();
+        }
+    }
+    
+    // max number of cached strings, for item text and raw text each
+    public static void setMaxSize(int maxSize) {
+        MiniMessageCache.maxSize = Math.max(STRIPES, maxSize);
+        for (Stripe stripe : stripes()) {
+            synchronized (stripe) {
+                stripe.trim();
+            }
+        }
+    }
+    
+    public static void clear() {
+        for (Stripe stripe : stripes()) {
+            synchronized (stripe) {
+                stripe.clear();
+            }
+        }
+    }
+    
+    // getters
+    public static boolean isEnabled() {
+        return enabled;
+    }
+    
+    public static int getMaxSize() {
+        return maxSize;
+    }
+    
+    public static int size() {
+        int size = 0;
+        for (Stripe stripe : stripes()) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+    
+    public static long getHits() {
+        return HITS.sum();
+    }
+    
+    public static long getMisses() {
+        return MISSES.sum();
+    }
+    
+    public static long getEvictions() {
+        return EVICTIONS.sum();
+    }
+    
+    public static double getHitRate() {
+        long hits = HITS.sum();
+        long total = hits + MISSES.sum();
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+    
+    // every stripe of both caches
+    private static Stripe[] stripes() {
+        Stripe[] all = Arrays.copyOf(CACHE, STRIPES * 2);
+        System.arraycopy(RAW, 0, all, STRIPES, STRIPES);
+        return all;
+    }
+    
+    // one lock's share of the cache, least recently used goes first
+    private static final class Stripe extends LinkedHashMap<String, Component> {
+        
+        Stripe() {
+            super(64, 0.75f, true);
+        }
+        
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Component> eldest) {
+            if (size() > maxSize / STRIPES) {
+                EVICTIONS.increment();
+                return true;
+            }
+            return false;
+        }
+        
+        void trim() {
+            while (size() > maxSize / STRIPES) {
+                remove(keySet().iterator().next());
+                EVICTIONS.increment();
+            }
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package dev.hxrry.hxgui.serialization;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Framing of the binary format. Only empty items are written, so no server
+ * is needed to encode or decode a stack.
+ */
+class BinaryFormatTest {
+    
+    @Test
+    void itemsFileRoundTrip() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (BinaryWriter writer = BinaryWriter.items(out)) {
+            writer.writeItem(null).writeItem(null);
+        }
+        
+        try (BinaryReader reader = read(out.toByteArray())) {
+            assertEquals(BinaryWriter.VERSION, reader.getVersion());
+            assertFalse(reader.isMenu());
+            assertTrue(reader.hasNext());
+            assertNull(reader.readItem());
+            assertTrue(reader.hasNext());
+            assertNull(reader.readItem());
+            assertFalse(reader.hasNext());
+        }
+    }
+    
+    @Test
+    void menuFileKeepsHeaderAndSlots() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (BinaryWriter writer = BinaryWriter.menu(out, "<red>Shop", 3, true)) {
+            writer.writeSlot(4, null, "close").writeSlot(53, null, null);
+        }
+        
+        try (BinaryReader reader = read(out.toByteArray())) {
+            assertTrue(reader.isMenu());
+            assertEquals("<red>Shop", reader.getTitle());
+            assertEquals(3, reader.getRows());
+            assertTrue(reader.isShared());
+            
+            BinaryReader.Slot first = reader.readSlot();
+            assertEquals(4, first.slot());
+            assertNull(first.item());
+            assertEquals("close", first.action());
+            
+            // an empty action is stored as "" and read back as none
+            BinaryReader.Slot second = reader.readSlot();
+            assertEquals(53, second.slot());
+            assertNull(second.item());
+            assertNull(second.action());
+            
+            assertFalse(reader.hasNext());
+        }
+    }
+    
+    @Test
+    void endMarkerStopsReading() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinaryWriter.items(out).close();
+        
+        try (BinaryReader reader = read(out.toByteArray())) {
+            assertFalse(reader.hasNext());
+            assertFalse(reader.hasNext());
+            IOException error = assertThrows(IOException.class, reader::readItem);
+            assertEquals("no more records", error.getMessage());
+        }
+    }
+    
+    @Test
+    void missingEndMarkerIsAnError() throws IOException {
+        byte[] bytes = header(BinaryWriter.MAGIC, BinaryWriter.VERSION, BinaryWriter.KIND_ITEMS);
+        
+        try (BinaryReader reader = read(bytes)) {
+            assertThrows(EOFException.class, reader::hasNext);
+        }
+    }
+    
+    @Test
+    void rejectsWrongMagic() {
+        byte[] bytes = header(0x12345678, BinaryWriter.VERSION, BinaryWriter.KIND_ITEMS);
+        
+        IOException error = assertThrows(IOException.class, () -> read(bytes));
+        assertEquals("not an HxGUI binary file", error.getMessage());
+    }
+    
+    @Test
+    void rejectsNewerVersion() {
+        byte[] bytes = header(BinaryWriter.MAGIC, BinaryWriter.VERSION + 1, BinaryWriter.KIND_ITEMS);
+        
+        IOException error = assertThrows(IOException.class, () -> read(bytes));
+        assertTrue(error.getMessage().startsWith("unsupported binary version"));
+    }
+    
+    @Test
+    void rejectsUnknownKind() {
+        byte[] bytes = header(BinaryWriter.MAGIC, BinaryWriter.VERSION, (byte) 9);
+        
+        IOException error = assertThrows(IOException.class, () -> read(bytes));
+        assertEquals("unknown binary file kind 9", error.getMessage());
+    }
+    
+    @Test
+    void rejectsNegativeItemLength() throws IOException {
+        assertCorruptLength(-1);
+    }
+    
+    @Test
+    void rejectsOversizedItemLength() throws IOException {
+        assertCorruptLength(Integer.MAX_VALUE);
+    }
+    
+    @Test
+    void rejectsWrongRecordType() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (BinaryWriter writer = BinaryWriter.items(out)) {
+            writer.writeItem(null);
+        }
+        
+        try (BinaryReader reader = read(out.toByteArray())) {
+            IOException error = assertThrows(IOException.class, reader::readSlot);
+            assertEquals("expected record " + BinaryWriter.TAG_SLOT + " but found " + BinaryWriter.TAG_ITEM, error.getMessage());
+        }
+    }
+    
+    @Test
+    void writerChecksFileKind() throws IOException {
+        try (BinaryWriter items = BinaryWriter.items(new ByteArrayOutputStream())) {
+            assertThrows(IllegalStateException.class, () -> items.writeSlot(0, null, null));
+        }
+        try (BinaryWriter menu = BinaryWriter.menu(new ByteArrayOutputStream(), "Menu", 1, false)) {
+            assertThrows(IllegalStateException.class, () -> menu.writeItem(null));
+        }
+    }
+    
+    @Test
+    void writerRejectsWritesAfterClose() throws IOException {
+        BinaryWriter writer = BinaryWriter.items(new ByteArrayOutputStream());
+        writer.close();
+        
+        assertThrows(IOException.class, () -> writer.writeItem(null));
+    }
+    
+    private static void assertCorruptLength(int length) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream data = new DataOutputStream(bytes);
+        data.write(header(BinaryWriter.MAGIC, BinaryWriter.VERSION, BinaryWriter.KIND_ITEMS));
+        data.writeByte(BinaryWriter.TAG_ITEM);
+        data.writeInt(length);
+        data.writeByte(BinaryWriter.TAG_END);
+        
+        try (BinaryReader reader = read(bytes.toByteArray())) {
+            IOException error = assertThrows(IOException.class, reader::readItem);
+            assertEquals("corrupt item length " + length, error.getMessage());
+        }
+    }
+    
+    private static byte[] header(int magic, int version, byte kind) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream data = new DataOutputStream(bytes)) {
+            data.writeInt(magic);
+            data.writeShort(version);
+            data.writeByte(kind);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+    
+    private static BinaryReader read(byte[] bytes) throws IOException {
+        return BinaryReader.open(new ByteArrayInputStream(bytes));
+    }
+}
@@ -0,0 +1,127 @@
+package dev.hxrry.hxgui.serialization;
+
+import dev.hxrry.hxgui.builders.GUIBuilder;
+import dev.hxrry.hxgui.core.Menu;
+import dev.hxrry.hxgui.core.MenuItem;
+import dev.hxrry.hxgui.core.SharedMenu;
+import net.kyori.adventure.text.minimessage.MiniMessage;
+import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
+import org.bukkit.Material;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.enchantments.Enchantment;
+import org.bukkit.inventory.ItemFlag;
+import org.bukkit.inventory.ItemStack;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockbukkit.mockbukkit.MockBukkit;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The same menu saved as YAML and as binary must load back the same way.
+ * Items are limited to what the YAML format can describe.
+ */
+class SerializationParityTest {
+    
+    private static final MiniMessage MINI_MESSAGE = MiniMessage.miniMessage();
+    
+    private GUISerializer serializer;
+    
+    @BeforeEach
+    void setUp() {
+        MockBukkit.mock();
+        serializer = new GUISerializer(MockBukkit.createMockPlugin());
+    }
+    
+    @AfterEach
+    void tearDown() {
+        MockBukkit.unmock();
+    }
+    
+    @Test
+    void personalMenuLoadsTheSameFromBoth() throws IOException {
+        Menu menu = sampleMenu(false);
+        
+        Menu fromYaml = viaYaml(menu);
+        Menu fromBinary = viaBinary(menu);
+        
+        assertSameMenu(menu, fromYaml);
+        assertSameMenu(menu, fromBinary);
+        assertSameMenu(fromYaml, fromBinary);
+    }
+    
+    @Test
+    void sharedMenuStaysShared() throws IOException {
+        Menu menu = sampleMenu(true);
+        
+        assertSameMenu(menu, viaYaml(menu));
+        assertSameMenu(menu, viaBinary(menu));
+    }
+    
+    @Test
+    void emptyMenuLoadsEmpty() throws IOException {
+        Menu menu = GUIBuilder.chest().title("Empty").rows(1).build();
+        
+        assertSameMenu(menu, viaYaml(menu));
+        assertSameMenu(menu, viaBinary(menu));
+    }
+    
+    private Menu sampleMenu(boolean shared) {
+        ItemStack sword = new ItemStack(Material.DIAMOND_SWORD);
+        sword.editMeta(meta -> {
+            meta.displayName(MINI_MESSAGE.deserialize("<aqua>Blade"));
+            meta.lore(List.of(MINI_MESSAGE.deserialize("<gray>Sharp"), MINI_MESSAGE.deserialize("<red>Heavy")));
+            meta.addEnchant(Enchantment.SHARPNESS, 3, true);
+            meta.addItemFlags(ItemFlag.HIDE_ATTRIBUTES);
+            meta.setUnbreakable(true);
+        });
+        
+        ItemStack info = new ItemStack(Material.PAPER);
+        info.editMeta(meta -> meta.displayName(MINI_MESSAGE.deserialize("<yellow>Info")));
+        
+        return GUIBuilder.chest()
+            .title("Shop")
+            .rows(3)
+            .shared(shared)
+            .item(0, sword)
+            .item(13, info)
+            .item(26, new ItemStack(Material.STONE, 16))
+            .build();
+    }
+    
+    // save to yaml text and parse it again, like a file on disk
+    private Menu viaYaml(Menu menu) {
+        YamlConfiguration config = new YamlConfiguration();
+        serializer.save(menu, config);
+        return serializer.load(YamlConfiguration.loadConfiguration(new StringReader(config.saveToString())));
+    }
+    
+    private Menu viaBinary(Menu menu) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        serializer.saveBinary(menu, out);
+        return serializer.loadBinary(new ByteArrayInputStream(out.toByteArray()));
+    }
+    
+    private static void assertSameMenu(Menu expected, Menu actual) {
+        PlainTextComponentSerializer plain = PlainTextComponentSerializer.plainText();
+        assertEquals(plain.serialize(expected.getTitle()), plain.serialize(actual.getTitle()));
+        assertEquals(expected.getRows(), actual.getRows());
+        assertEquals(expected.getSize(), actual.getSize());
+        assertEquals(expected instanceof SharedMenu, actual instanceof SharedMenu);
+        
+        Map<Integer, MenuItem> expectedItems = expected.getItems();
+        Map<Integer, MenuItem> actualItems = actual.getItems();
+        assertEquals(expectedItems.keySet(), actualItems.keySet());
+        for (Map.Entry<Integer, MenuItem> entry : expectedItems.entrySet()) {
+            assertEquals(entry.getValue().getItem(), actualItems.get(entry.getKey()).getItem(), "slot " + entry.getKey());
+        }
+    }
+}